@@ -0,0 +1,197 @@
+package com.dive.club.catalog;
+
+import com.dive.club.dto.ActivityCatalogFilter;
+import com.dive.club.dto.ActivityResponseDTO;
+import com.dive.club.dto.CatalogCursor;
+import com.dive.club.dto.CursorPage;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Immutable view of all published activities as precomputed DTOs
+ * Indexed by id, by catalog order (startTime DESC, activityId DESC) and by category.
+ * Never modified after construction, so any number of threads may read it without locking;
+ * the DTOs are shared between requests and must be treated as read-only.
+ * The ETag is derived from the (id, version) pairs it contains, so it is stable across
+ * restarts and nodes; it is weak so that compressed and identity responses share it.
+ * Last-Modified is the time the snapshot was built
+ */
+public final class CatalogSnapshot {
+
+    static final CatalogSnapshot EMPTY = new CatalogSnapshot(List.of());
+
+    /**
+     * Catalog order: newest start time first, ties broken by id (same as the keyset cursor)
+     */
+    private static final Comparator<CatalogKey> CATALOG_ORDER = Comparator
+            .comparing(CatalogKey::startTime, Comparator.reverseOrder())
+            .thenComparing(CatalogKey::activityId, Comparator.reverseOrder());
+
+    private static final int RECENT_LIMIT = 10;
+
+    private final Map<Long, ActivityResponseDTO> byId;
+    private final NavigableMap<CatalogKey, ActivityResponseDTO> byStartTime;
+    private final Map<String, NavigableMap<CatalogKey, ActivityResponseDTO>> byCategory;
+    private final List<ActivityResponseDTO> recentlyCreated;
+    private final String etag;
+    private final Instant lastModified;
+
+    CatalogSnapshot(Collection<ActivityResponseDTO> activities) {
+        Map<Long, ActivityResponseDTO> ids = new HashMap<>();
+        NavigableMap<CatalogKey, ActivityResponseDTO> ordered = new TreeMap<>(CATALOG_ORDER);
+        Map<String, NavigableMap<CatalogKey, ActivityResponseDTO>> categories = new HashMap<>();
+        for (ActivityResponseDTO dto : activities) {
+            CatalogKey key = CatalogKey.of(dto);
+            ids.put(dto.getActivityId(), dto);
+            ordered.put(key, dto);
+            categories.computeIfAbsent(dto.getCategory(), c -> new TreeMap<>(CATALOG_ORDER)).put(key, dto);
+        }
+        categories.replaceAll((category, map) -> Collections.unmodifiableNavigableMap(map));
+
+        this.byId = Collections.unmodifiableMap(ids);
+        this.byStartTime = Collections.unmodifiableNavigableMap(ordered);
+        this.byCategory = Collections.unmodifiableMap(categories);
+        this.recentlyCreated = activities.stream()
+                .sorted(Comparator.comparing(ActivityResponseDTO::getCreatedAt, Comparator.reverseOrder())
+                        .thenComparing(ActivityResponseDTO::getActivityId, Comparator.reverseOrder()))
+                .limit(RECENT_LIMIT)
+                .toList();
+        this.etag = fingerprint(ordered.values());
+        this.lastModified = Instant.now();
+    }
+
+    /**
+     * New snapshot with the given activity added or replaced
+     */
+    CatalogSnapshot with(ActivityResponseDTO dto) {
+        Map<Long, ActivityResponseDTO> copy = new HashMap<>(byId);
+        copy.put(dto.getActivityId(), dto);
+        return new CatalogSnapshot(copy.values());
+    }
+
+    /**
+     * New snapshot without the given activities (this snapshot if none of them is present)
+     */
+    CatalogSnapshot without(Collection<Long> activityIds) {
+        if (activityIds.stream().noneMatch(byId::containsKey)) {
+            return this;
+        }
+        Map<Long, ActivityResponseDTO> copy = new HashMap<>(byId);
+        activityIds.forEach(copy::remove);
+        return new CatalogSnapshot(copy.values());
+    }
+
+    /**
+     * Weak ETag covering every published activity and its version
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public ActivityResponseDTO get(Long activityId) {
+        return byId.get(activityId);
+    }
+
+    public boolean contains(Long activityId) {
+        return byId.containsKey(activityId);
+    }
+
+    /**
+     * Published activities of one category in catalog order
+     */
+    public List<ActivityResponseDTO> byCategory(String category) {
+        NavigableMap<CatalogKey, ActivityResponseDTO> activities = byCategory.get(category);
+        return activities == null ? List.of() : List.copyOf(activities.values());
+    }
+
+    /**
+     * Most recently created published activities, newest first
+     */
+    public List<ActivityResponseDTO> recentlyCreated(int limit) {
+        return recentlyCreated.subList(0, Math.min(limit, recentlyCreated.size()));
+    }
+
+    /**
+     * One keyset page in catalog order, with the same semantics as the SQL catalog query
+     * @param keywordIds ids allowed by a keyword search, or null for no keyword restriction
+     */
+    public CursorPage<ActivityResponseDTO> page(ActivityCatalogFilter filter, Set<Long> keywordIds,
+                                                CatalogCursor after, int pageSize) {
+        NavigableMap<CatalogKey, ActivityResponseDTO> range = filter.hasCategory()
+                ? byCategory.getOrDefault(filter.getCategoryOrNull(), Collections.emptyNavigableMap())
+                : byStartTime;
+
+        LocalDateTime startBefore = filter.getStartBefore();
+        if (startBefore != null) {
+            // every entry starting before startBefore sorts after (startBefore, Long.MIN_VALUE)
+            range = range.tailMap(new CatalogKey(startBefore, Long.MIN_VALUE), true);
+        }
+        if (after != null) {
+            range = range.tailMap(new CatalogKey(after.getStartTime(), after.getActivityId()), false);
+        }
+
+        LocalDateTime startFrom = filter.getStartFrom();
+        List<ActivityResponseDTO> rows = new ArrayList<>(pageSize + 1);
+        for (ActivityResponseDTO dto : range.values()) {
+            if (startFrom != null && dto.getStartTime().isBefore(startFrom)) {
+                break; // descending order: nothing later can match
+            }
+            if (keywordIds != null && !keywordIds.contains(dto.getActivityId())) {
+                continue;
+            }
+            if (filter.getMinCost() != null && dto.getCost().compareTo(filter.getMinCost()) < 0) {
+                continue;
+            }
+            if (filter.getMaxCost() != null && dto.getCost().compareTo(filter.getMaxCost()) > 0) {
+                continue;
+            }
+            rows.add(dto);
+            if (rows.size() > pageSize) {
+                break;
+            }
+        }
+
+        boolean hasNext = rows.size() > pageSize;
+        List<ActivityResponseDTO> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            ActivityResponseDTO last = items.get(items.size() - 1);
+            nextCursor = new CatalogCursor(last.getStartTime(), last.getActivityId()).encode();
+        }
+        return new CursorPage<>(List.copyOf(items), nextCursor, hasNext);
+    }
+
+    private static String fingerprint(Collection<ActivityResponseDTO> ordered) {
+        long hash = 1125899906842597L;
+        for (ActivityResponseDTO dto : ordered) {
+            hash = 31 * hash + dto.getActivityId();
+            hash = 31 * hash + (dto.getVersion() == null ? 0 : dto.getVersion());
+        }
+        return "W/\"c" + ordered.size() + "-" + Long.toHexString(hash) + "\"";
+    }
+
+    private record CatalogKey(LocalDateTime startTime, Long activityId) {
+        static CatalogKey of(ActivityResponseDTO dto) {
+            return new CatalogKey(dto.getStartTime(), dto.getActivityId());
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.dive.club.catalog;
+
+import com.dive.club.dto.ActivityResponseDTO;
+import com.dive.club.enums.ActivityStatus;
+import com.dive.club.event.ActivityBatchChangedEvent;
+import com.dive.club.event.ActivityChangedEvent;
+import com.dive.club.event.ActivityChangedEvent.ChangeType;
+import com.dive.club.repository.ActivityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Copy-on-write holder of the published catalog snapshot
+ * Readers take the current {@link CatalogSnapshot} with a single volatile read; writers
+ * build a new snapshot and swap it in. Writers are serialized and re-read the changed
+ * activity from the primary, so out-of-order events cannot leave a stale entry behind
+ */
+@Component
+@Slf4j
+public class PublishedCatalog {
+
+    private final ActivityRepository activityRepository;
+    private final TransactionTemplate primaryRead;
+
+    private volatile CatalogSnapshot snapshot = CatalogSnapshot.EMPTY;
+    private volatile boolean ready;
+
+    public PublishedCatalog(ActivityRepository activityRepository, PlatformTransactionManager transactionManager) {
+        this.activityRepository = activityRepository;
+        // read-write on purpose: routes to the primary so a just-committed change is visible
+        this.primaryRead = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Current snapshot; lock-free
+     */
+    public CatalogSnapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Whether the initial load has completed (before that, callers should query the database)
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Load all published activities once the application (and sample data) is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        List<ActivityResponseDTO> published = primaryRead.execute(status -> activityRepository
+                .findByStatus(ActivityStatus.PUBLISHED).stream()
+                .map(ActivityResponseDTO::fromEntity)
+                .toList());
+        snapshot = new CatalogSnapshot(published);
+        ready = true;
+        log.info("Published catalog snapshot built with {} activities", snapshot.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onActivityChanged(ActivityChangedEvent event) {
+        if (event.getType() == ChangeType.DELETED) {
+            snapshot = snapshot.without(List.of(event.getActivityId()));
+            return;
+        }
+        Optional<ActivityResponseDTO> current = primaryRead.execute(status -> activityRepository
+                .findById(event.getActivityId())
+                .filter(activity -> activity.getStatus() == ActivityStatus.PUBLISHED)
+                .map(ActivityResponseDTO::fromEntity));
+        snapshot = current.isPresent()
+                ? snapshot.with(current.get())
+                : snapshot.without(List.of(event.getActivityId()));
+    }
+
+    /**
+     * Set-based transitions (ENDED, ARCHIVED, purge) only ever take activities out of the catalog
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onActivitiesChanged(ActivityBatchChangedEvent event) {
+        if (event.getType() == ChangeType.CREATED) {
+            return; // bulk imports create drafts
+        }
+        snapshot = snapshot.without(event.getActivityIds());
+    }
+}
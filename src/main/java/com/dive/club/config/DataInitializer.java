@@ -102,7 +102,7 @@ public class DataInitializer implements CommandLineRunner {
         activity1.setMaxParticipants(20);
         activity1.setCost(new BigDecimal("3500.00"));
         activity1.setQualifications("無需任何經驗，歡迎新手");
-        activity1.setImageUrl("/images/default/scuba-diving.jpg");
+        activity1.setImageUrl("/images/default/training.jpg");
         activity1.setStatus(ActivityStatus.PUBLISHED);
         activity1.setCreator(manager1);
         activityRepository.save(activity1);
@@ -119,7 +119,7 @@ public class DataInitializer implements CommandLineRunner {
         activity2.setMaxParticipants(15);
         activity2.setCost(new BigDecimal("8500.00"));
         activity2.setQualifications("須持有 OW 證照");
-        activity2.setImageUrl("/images/default/unnamed.jpg");
+        activity2.setImageUrl("/images/default/scuba-diving.jpg");
         activity2.setStatus(ActivityStatus.PUBLISHED);
         activity2.setCreator(manager1);
         activityRepository.save(activity2);
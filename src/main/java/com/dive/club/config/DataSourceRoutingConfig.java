@@ -0,0 +1,122 @@
+package com.dive.club.config;
+
+import com.dive.club.datasource.DataSourceRole;
+import com.dive.club.datasource.ReadWriteRoutingDataSource;
+import com.dive.club.datasource.ReplicaAwareTransactionManager;
+import com.dive.club.datasource.ReplicaLagGuard;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Read/Write DataSource Routing
+ * Enabled when app.datasource.replica.url is set: read-only transactions go to the
+ * replica pool, all other work (writes, Flyway, schedulers) to the primary pool
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+@Slf4j
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagGuard replicaLagGuard(
+            @Value("${app.datasource.replica.read-your-writes-window:5s}") Duration window) {
+        return new ReplicaLagGuard(window);
+    }
+
+    /**
+     * The DataSource seen by JPA, Flyway and the rest of the application
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagGuard replicaLagGuard) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaLagGuard);
+        routing.setTargetDataSources(Map.of(
+                DataSourceRole.PRIMARY, primary,
+                DataSourceRole.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        log.info("Routing read-only transactions to the replica pool");
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Replaces Boot's JpaTransactionManager so read-only transactions pick their route at begin
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(
+            ReplicaLagGuard replicaLagGuard,
+            ObjectProvider<TransactionManagerCustomizers> transactionManagerCustomizers) {
+        ReplicaAwareTransactionManager transactionManager = new ReplicaAwareTransactionManager(replicaLagGuard);
+        // typed as TransactionManager to pick the non-deprecated customize overload
+        transactionManagerCustomizers.ifAvailable(customizers -> customizers.customize((TransactionManager) transactionManager));
+        return transactionManager;
+    }
+
+    /**
+     * Apply the same migrations to the replica
+     * Only for local setups where the replica is a standalone database (e.g. a second H2 instance)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.datasource.replica", name = "migrate", havingValue = "true")
+    public InitializingBean replicaSchemaMigration(Flyway flyway,
+                                                   @Qualifier("replicaDataSource") DataSource replica) {
+        return () -> {
+            log.info("Migrating replica schema");
+            Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(replica)
+                    .load()
+                    .migrate();
+        };
+    }
+}
@@ -1,14 +1,36 @@
 package com.dive.club.config;
 
+import com.dive.club.util.ConditionalRequests;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 
 @Configuration
+@RequiredArgsConstructor
 public class ImageConfig implements WebMvcConfigurer {
 
+    private final StaticAssetBundler bundler;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        // CSS/JS bundles: templates link @{/assets/...}, rewritten to content-hashed URLs (app-{md5}.css)
+        // that never change; the plain names stay reachable but change with every build, so revalidate
+        registry.addResourceHandler(StaticAssetBundler.URL_PREFIX + "{file:.+-[0-9a-f]{32}\\.(?:css|js)}")
+                .addResourceLocations(bundler.location())
+                .setCacheControl(ConditionalRequests.immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+        registry.addResourceHandler(StaticAssetBundler.URL_PREFIX + "**")
+                .addResourceLocations(bundler.location())
+                .setCacheControl(ConditionalRequests.revalidate())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+
         // 配置圖片資源路徑
         registry.addResourceHandler("/images/**")
                 .addResourceLocations("classpath:/static/images/")
@@ -1,9 +1,14 @@
 package com.dive.club.config;
 
+import com.dive.club.security.ApiSecurityErrorHandler;
+import com.dive.club.security.ApiTokenAuthenticationFilter;
+import com.dive.club.security.ApiTokenService;
 import com.dive.club.service.CustomUserDetailsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -12,9 +17,12 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 
 /**
  * Spring Security Configuration
@@ -27,8 +35,63 @@ import org.springframework.security.web.SecurityFilterChain;
 public class SecurityConfig {
 
         private final CustomUserDetailsService userDetailsService;
+        private final ApiTokenService apiTokenService;
+        private final ObjectMapper objectMapper;
 
+        /**
+         * REST API: bearer tokens verified on every request, no session is ever created.
+         * An existing browser session is still honoured so SSR pages can call the API
+         */
         @Bean
+        @Order(1)
+        public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+                ApiSecurityErrorHandler errorHandler = new ApiSecurityErrorHandler(objectMapper);
+                http
+                                .securityMatcher("/api/**")
+                                .csrf(AbstractHttpConfigurer::disable)
+                                .sessionManagement(session -> session
+                                                .sessionCreationPolicy(SessionCreationPolicy.NEVER))
+                                .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                                .addFilterBefore(new ApiTokenAuthenticationFilter(apiTokenService, errorHandler),
+                                                UsernamePasswordAuthenticationFilter.class)
+                                .exceptionHandling(exceptions -> exceptions
+                                                .authenticationEntryPoint(errorHandler)
+                                                .accessDeniedHandler(errorHandler))
+                                .authorizeHttpRequests(auth -> auth
+                                                // Public endpoints - anyone can access
+                                                .requestMatchers(
+                                                                "/api/activities",
+                                                                "/api/activities/search",
+                                                                "/api/activities/category/**")
+                                                .permitAll()
+
+                                                // Manager API endpoints - ROLE_MANAGER or ROLE_ADMIN
+                                                .requestMatchers(
+                                                                "/api/activities/my",
+                                                                "/api/activities/{id}/submit",
+                                                                "/api/images")
+                                                .hasAnyRole("MANAGER", "ADMIN")
+
+                                                // SuperManager API endpoints - ROLE_ADMIN
+                                                .requestMatchers(
+                                                                "/api/activities/pending",
+                                                                "/api/activities/{id}/audit")
+                                                .hasRole("ADMIN")
+
+                                                // Admin operational API - ROLE_ADMIN
+                                                .requestMatchers("/api/admin/**").hasRole("ADMIN")
+
+                                                // All other API requests (including activity detail) require authentication
+                                                .anyRequest().authenticated());
+
+                return http.build();
+        }
+
+        /**
+         * Server-rendered pages: form login with an HTTP session
+         */
+        @Bean
+        @Order(2)
         public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
                 http
                                 .csrf(AbstractHttpConfigurer::disable) // Disable CSRF for REST API (enable in
@@ -40,12 +103,10 @@ public class SecurityConfig {
                                                                 "/",
                                                                 "/login",
                                                                 "/auth/**",
-                                                                "/api/activities",
-                                                                "/api/activities/search",
-                                                                "/api/activities/category/**",
                                                                 "/h2-console/**",
                                                                 "/css/**",
                                                                 "/js/**",
+                                                                "/assets/**",
                                                                 "/images/**")
                                                 .permitAll()
 
@@ -74,21 +135,6 @@ public class SecurityConfig {
                                                                 "/activities/audit/**")
                                                 .hasRole("ADMIN")
 
-                                                // API endpoints - Activity detail
-                                                .requestMatchers("/api/activities/{id}").authenticated()
-
-                                                // Manager API endpoints - ROLE_MANAGER or ROLE_ADMIN
-                                                .requestMatchers(
-                                                                "/api/activities/my",
-                                                                "/api/activities/{id}/submit")
-                                                .hasAnyRole("MANAGER", "ADMIN")
-
-                                                // SuperManager API endpoints - ROLE_ADMIN
-                                                .requestMatchers(
-                                                                "/api/activities/pending",
-                                                                "/api/activities/{id}/audit")
-                                                .hasRole("ADMIN")
-
                                                 // All other requests require authentication
                                                 .anyRequest().authenticated())
                                 .formLogin(form -> form
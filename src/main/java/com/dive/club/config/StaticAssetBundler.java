@@ -0,0 +1,105 @@
+package com.dive.club.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Builds the self-hosted CSS/JS bundles used by every page
+ * The sources (app.assets.css / app.assets.js, vendored as WebJars) are concatenated into
+ * assets/app.css and assets/app.js in the static work directory and precompressed. Templates
+ * reference them as {@code @{/assets/app.css}}; the resource chain rewrites that to a
+ * content-hashed URL (app-{md5}.css) which is served with year-long immutable caching.
+ * Already minified sources (*.min.css / *.min.js) are used as-is; other CSS is minified here.
+ * JS is not minified here, so JS sources must be pre-minified
+ */
+@Component
+@Slf4j
+public class StaticAssetBundler {
+
+    public static final String URL_PREFIX = "/assets/";
+
+    private static final Pattern SOURCE_MAP_COMMENT = Pattern.compile("(?m)^\\s*(/\\*# sourceMappingURL=.*?\\*/|//# sourceMappingURL=\\S*)\\s*$");
+    private static final Pattern CSS_COMMENT = Pattern.compile("/\\*(?!!).*?\\*/", Pattern.DOTALL);
+    private static final Pattern CSS_WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern CSS_PUNCTUATION_SPACE = Pattern.compile("\\s*([{};])\\s*");
+
+    private final StaticAssetPrecompressor precompressor;
+    private final Path directory;
+
+    public StaticAssetBundler(StaticAssetPrecompressor precompressor,
+                              @Value("${app.static.precompressed-dir}") Path baseDirectory,
+                              @Value("${app.assets.css}") List<String> cssSources,
+                              @Value("${app.assets.js}") List<String> jsSources) {
+        this.precompressor = precompressor;
+        this.directory = baseDirectory.toAbsolutePath().normalize().resolve("assets");
+        try {
+            Files.createDirectories(directory);
+            bundle("app.css", cssSources);
+            bundle("app.js", jsSources);
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法建立靜態資源套件: " + directory, e);
+        }
+    }
+
+    /**
+     * Resource location of the bundles
+     */
+    public String location() {
+        return directory.toUri().toString();
+    }
+
+    private void bundle(String name, List<String> sources) throws IOException {
+        StringBuilder bundle = new StringBuilder();
+        for (String source : sources) {
+            String path = source.trim();
+            Resource resource = new ClassPathResource(path);
+            if (!resource.isReadable()) {
+                throw new IllegalStateException("找不到靜態資源: " + path);
+            }
+            String content;
+            try (InputStream in = resource.getInputStream()) {
+                content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            content = SOURCE_MAP_COMMENT.matcher(content).replaceAll("");
+            if (name.endsWith(".css") && !path.endsWith(".min.css")) {
+                content = minifyCss(content);
+            }
+            // newline (and ';' for scripts) keeps sources from running into each other
+            bundle.append(content.strip()).append(name.endsWith(".js") ? ";\n" : "\n");
+        }
+
+        Path target = directory.resolve(name);
+        Path temp = Files.createTempFile(directory, name, ".tmp");
+        Files.writeString(temp, bundle, StandardCharsets.UTF_8);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (String encoding : List.of(".gz", ".br")) {
+            Files.deleteIfExists(target.resolveSibling(name + encoding)); // stale variants of a previous run
+        }
+        precompressor.compress(target);
+        log.info("Bundled {} source(s) into {} ({} bytes)", sources.size(), target, Files.size(target));
+    }
+
+    /**
+     * Conservative CSS minification: drops comments (keeps license comments)
+     * and collapses whitespace, leaving strings and selectors otherwise untouched
+     */
+    private static String minifyCss(String css) {
+        String minified = CSS_COMMENT.matcher(css).replaceAll("");
+        minified = CSS_WHITESPACE.matcher(minified).replaceAll(" ");
+        minified = CSS_PUNCTUATION_SPACE.matcher(minified).replaceAll("$1");
+        return minified.replace(";}", "}").trim();
+    }
+}
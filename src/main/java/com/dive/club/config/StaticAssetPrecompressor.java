@@ -0,0 +1,207 @@
+package com.dive.club.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Precompresses bundled static assets once at startup
+ * Compressible files under classpath:/static/ are copied into a work directory next to a .gz
+ * (and, when a brotli executable is available, a .br) variant. The static locations list
+ * that directory first, so the variant matching Accept-Encoding is served as-is instead of
+ * being compressed per request. Already-compressed formats (JPEG, PNG, ...) and files below
+ * the minimum size are left on the classpath. Because the directory is served ahead of the
+ * classpath, it is emptied at every startup (assets removed or renamed in a new build must
+ * not linger) and refused when another user owns it
+ */
+@Component
+@Slf4j
+public class StaticAssetPrecompressor {
+
+    private static final String SOURCE_PATTERN = "classpath:/static/**";
+    private static final Set<String> COMPRESSIBLE = Set.of(
+            "css", "js", "mjs", "json", "map", "svg", "html", "txt", "xml", "ico", "webmanifest");
+
+    private final Path directory;
+    private final boolean enabled;
+    private final long minSize;
+    private final String brotliCommand;
+    private final boolean useBrotli;
+
+    public StaticAssetPrecompressor(@Value("${app.static.precompressed-dir}") Path directory,
+                                    @Value("${app.static.precompress.enabled:true}") boolean enabled,
+                                    @Value("${app.static.precompress.min-size:1024}") long minSize,
+                                    @Value("${app.static.precompress.brotli-command:brotli}") String brotliCommand) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.enabled = enabled;
+        this.minSize = minSize;
+        this.brotliCommand = brotliCommand;
+        this.useBrotli = enabled && brotliAvailable();
+        try {
+            reset();
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法清空靜態資源目錄: " + this.directory, e);
+        }
+        if (enabled) {
+            precompress();
+        }
+    }
+
+    /**
+     * Write the .gz / .br variants of a generated asset (e.g. a bundle) next to it
+     * Does nothing when precompression is disabled or the file is small or not compressible
+     */
+    public void compress(Path file) throws IOException {
+        if (!enabled || !isCompressible(file.getFileName().toString()) || Files.size(file) < minSize) {
+            return;
+        }
+        gzip(file);
+        if (useBrotli) {
+            brotli(file);
+        }
+    }
+
+    /**
+     * Create the directory or empty it, after checking it belongs to this process's user
+     */
+    private void reset() throws IOException {
+        Files.createDirectories(directory);
+        Path probe = Files.createTempFile(directory, ".owner", ".tmp");
+        try {
+            UserPrincipal owner = Files.getOwner(directory);
+            if (!owner.equals(Files.getOwner(probe))) {
+                throw new IllegalStateException("靜態資源目錄的擁有者不是應用程式使用者 (" + owner.getName() + "): " + directory);
+            }
+        } finally {
+            Files.delete(probe);
+        }
+        List<Path> leftovers;
+        try (Stream<Path> paths = Files.walk(directory)) {
+            leftovers = paths.filter(path -> !path.equals(directory))
+                    .sorted(Comparator.reverseOrder()) // children before their directories
+                    .toList();
+        }
+        for (Path path : leftovers) {
+            Files.delete(path); // walk does not follow links, so a link is removed, not its target
+        }
+        if (!leftovers.isEmpty()) {
+            log.info("Removed {} file(s) of a previous run from {}", leftovers.size(), directory);
+        }
+    }
+
+    private void precompress() {
+        int copied = 0;
+        int gzipped = 0;
+        int brotlied = 0;
+        try {
+            Resource root = new PathMatchingResourcePatternResolver().getResource("classpath:/static/");
+            String rootUrl = root.getURL().toString();
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(SOURCE_PATTERN)) {
+                String url = resource.getURL().toString();
+                if (!resource.isReadable() || url.endsWith("/") || !url.startsWith(rootUrl)) {
+                    continue;
+                }
+                String relative = url.substring(rootUrl.length());
+                String fileName = relative.substring(relative.lastIndexOf('/') + 1);
+                if (fileName.startsWith(".")) {
+                    continue; // .DS_Store and friends
+                }
+                if (!isCompressible(fileName) || resource.contentLength() < minSize) {
+                    continue; // nothing to gain, keeps being served from the classpath
+                }
+
+                Path target = directory.resolve(relative).normalize();
+                Files.createDirectories(target.getParent());
+                try (InputStream in = resource.getInputStream()) {
+                    Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                copied++;
+
+                if (gzip(target)) {
+                    gzipped++;
+                }
+                if (useBrotli && brotli(target)) {
+                    brotlied++;
+                }
+            }
+        } catch (IOException e) {
+            // assets are still served from the classpath, just not precompressed
+            log.warn("Static asset precompression failed: {}", e.getMessage());
+            return;
+        }
+        log.info("Static assets precompressed into {}: {} files, {} gzip, {} brotli variants{}",
+                directory, copied, gzipped, brotlied, useBrotli ? "" : " (brotli executable not found)");
+    }
+
+    private static boolean isCompressible(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot >= 0 && COMPRESSIBLE.contains(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Write file.gz; dropped again when it does not save at least 10%
+     */
+    private static boolean gzip(Path file) throws IOException {
+        Path compressed = file.resolveSibling(file.getFileName() + ".gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressed))) {
+            Files.copy(file, out);
+        }
+        return keepIfSmaller(file, compressed);
+    }
+
+    private boolean brotli(Path file) throws IOException {
+        Path compressed = file.resolveSibling(file.getFileName() + ".br");
+        if (!run(brotliCommand, "--force", "--best", "--output=" + compressed, file.toString())) {
+            Files.deleteIfExists(compressed);
+            return false;
+        }
+        return keepIfSmaller(file, compressed);
+    }
+
+    private static boolean keepIfSmaller(Path original, Path compressed) throws IOException {
+        if (Files.size(compressed) * 10 > Files.size(original) * 9) {
+            Files.delete(compressed);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean brotliAvailable() {
+        return brotliCommand != null && !brotliCommand.isBlank() && run(brotliCommand, "--version");
+    }
+
+    private static boolean run(String... command) {
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return false;
+            }
+            return process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -4,17 +4,27 @@ import com.dive.club.dto.*;
 import com.dive.club.entity.Activity;
 import com.dive.club.entity.Manager;
 import com.dive.club.enums.ActivityStatus;
+import com.dive.club.service.ActivityExportService;
+import com.dive.club.service.ActivityImportService;
 import com.dive.club.service.ActivityService;
+import com.dive.club.util.ConditionalRequests;
+import com.dive.club.util.EntityTags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,6 +41,8 @@ import java.util.stream.Collectors;
 public class ActivityController {
 
     private final ActivityService activityService;
+    private final ActivityImportService activityImportService;
+    private final ActivityExportService activityExportService;
 
     /**
      * UC-A05: Create Activity
@@ -55,43 +67,107 @@ public class ActivityController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Bulk Import Activities
+     * POST /api/activities/import?batchSize={n}
+     * Content-Type: text/csv (header row required) or application/x-ndjson
+     * Access: Manager, SuperManager
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/x-ndjson" })
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<Map<String, Object>> importActivities(
+            HttpServletRequest request,
+            @RequestParam(required = false) Integer batchSize,
+            @AuthenticationPrincipal Manager manager) throws IOException {
+
+        log.info("POST /api/activities/import - {} import by {}", request.getContentType(), manager.getEmail());
+
+        ActivityImportResultDTO result = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                        ? activityImportService.importCsv(request.getInputStream(), manager, batchSize)
+                        : activityImportService.importNdjson(request.getInputStream(), manager, batchSize);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", result.getFailed() == 0);
+        response.put("message", String.format("匯入完成：成功 %d 筆，失敗 %d 筆", result.getImported(), result.getFailed()));
+        response.put("data", result);
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Bulk Export Activities
+     * GET /api/activities/export?format=csv|ndjson&status={status}
+     * Streams rows as they are read; nothing is buffered beyond one chunk
+     * Access: SuperManager only
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportActivities(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) ActivityStatus status,
+            HttpServletResponse response) throws IOException {
+
+        log.info("GET /api/activities/export - format={}, status={}", format, status);
+
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            throw new IllegalArgumentException("不支援的匯出格式: " + format);
+        }
+
+        String filename = "activities" + (status != null ? "-" + status.name().toLowerCase() : "")
+                + (ndjson ? ".ndjson" : ".csv");
+        response.setContentType(ndjson ? "application/x-ndjson;charset=UTF-8" : "text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+
+        if (ndjson) {
+            activityExportService.exportNdjson(response.getOutputStream(), status);
+        } else {
+            activityExportService.exportCsv(response.getOutputStream(), status);
+        }
+    }
+
     /**
      * Submit activity for review
      * POST /api/activities/{id}/submit
+     * Optional If-Match: "{version}" (412 if the activity changed since it was read)
      * Access: Manager (owner only)
      */
     @PostMapping("/{id}/submit")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     public ResponseEntity<Map<String, Object>> submitForReview(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @AuthenticationPrincipal Manager manager) {
 
         log.info("POST /api/activities/{}/submit - Submitted by {}", id, manager.getEmail());
 
-        Activity activity = activityService.submitForReview(id, manager);
+        Activity activity = activityService.submitForReview(id, manager, EntityTags.parseIfMatch(ifMatch));
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         response.put("message", "提交成功，等待管理員審核");
         response.put("data", ActivityResponseDTO.fromEntity(activity));
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(EntityTags.fromVersion(activity.getVersion())).body(response);
     }
 
     /**
      * UC-A09: Audit Activity (Approve/Reject)
      * POST /api/activities/{id}/audit
+     * Optional If-Match: "{version}" (412 if another reviewer got there first)
      * Access: SuperManager only
      */
     @PostMapping("/{id}/audit")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> auditActivity(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody AuditDecisionDTO decision) {
 
         log.info("POST /api/activities/{}/audit - Decision: {}", id, decision.getAction());
 
-        Activity activity = activityService.auditActivity(id, decision);
+        Activity activity = activityService.auditActivity(id, decision, EntityTags.parseIfMatch(ifMatch));
 
         String message = decision.getAction() == AuditDecisionDTO.AuditAction.APPROVE
                 ? "活動審核通過，已發布"
@@ -102,31 +178,33 @@ public class ActivityController {
         response.put("message", message);
         response.put("data", ActivityResponseDTO.fromEntity(activity));
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(EntityTags.fromVersion(activity.getVersion())).body(response);
     }
 
     /**
      * Update Activity
      * PUT /api/activities/{id}
+     * Optional If-Match: "{version}" (412 if the activity changed since it was read)
      * Access: Manager (owner only)
      */
     @PutMapping("/{id}")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     public ResponseEntity<Map<String, Object>> updateActivity(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @Valid @RequestBody ActivityUpdateDTO dto,
             @AuthenticationPrincipal Manager manager) {
 
         log.info("PUT /api/activities/{} - Updated by {}", id, manager.getEmail());
 
-        Activity activity = activityService.updateActivity(id, dto, manager);
+        Activity activity = activityService.updateActivity(id, dto, manager, EntityTags.parseIfMatch(ifMatch));
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         response.put("message", "活動更新成功");
         response.put("data", ActivityResponseDTO.fromEntity(activity));
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(EntityTags.fromVersion(activity.getVersion())).body(response);
     }
 
     /**
@@ -180,38 +258,49 @@ public class ActivityController {
      * Access: All authenticated users
      */
     @GetMapping("/{id}")
-    @Transactional(readOnly = true)
-    public ResponseEntity<Map<String, Object>> getActivity(@PathVariable Long id) {
+    public ResponseEntity<Map<String, Object>> getActivity(@PathVariable Long id, ServletWebRequest webRequest) {
         log.info("GET /api/activities/{}", id);
 
-        Activity activity = activityService.getActivityById(id);
+        ActivityStamp stamp = activityService.getActivityStamp(id);
+        if (ConditionalRequests.notModified(webRequest, ConditionalRequests.revalidate(),
+                EntityTags.fromVersion(stamp.getVersion()), stamp.getLastModifiedMillis())) {
+            return null;
+        }
+
+        Activity activity = activityService.getActivityIncludingArchived(id);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
         response.put("data", ActivityResponseDTO.fromEntity(activity));
 
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok().eTag(EntityTags.fromVersion(activity.getVersion())).body(response);
     }
 
     /**
-     * Get All Published Activities
-     * GET /api/activities
+     * Get Published Activities (keyset paginated)
+     * GET /api/activities?keyword=&category=&dateFrom=&dateTo=&minCost=&maxCost=&cursor=&size=
      * Access: Public (including guests)
      */
     @GetMapping
-    @Transactional(readOnly = true)
-    public ResponseEntity<Map<String, Object>> getAllPublishedActivities() {
-        log.info("GET /api/activities - Getting all published activities");
+    public ResponseEntity<Map<String, Object>> getAllPublishedActivities(
+            @ModelAttribute ActivityCatalogFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            ServletWebRequest webRequest) {
+        log.info("GET /api/activities - Getting published activities page (cursor={}, size={})", cursor, size);
 
-        List<Activity> activities = activityService.getAllPublishedActivities();
-        List<ActivityResponseDTO> activityDTOs = activities.stream()
-                .map(ActivityResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+
+        CursorPage<ActivityResponseDTO> page = activityService.getPublishedCatalogPage(filter, cursor, size);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("count", activityDTOs.size());
-        response.put("data", activityDTOs);
+        response.put("count", page.getItems().size());
+        response.put("data", page.getItems());
+        response.put("nextCursor", page.getNextCursor());
+        response.put("hasNext", page.isHasNext());
 
         return ResponseEntity.ok(response);
     }
@@ -272,16 +361,17 @@ public class ActivityController {
      * Access: Public
      */
     @GetMapping("/search")
-    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> searchActivities(
-            @RequestParam String keyword) {
+            @RequestParam String keyword,
+            ServletWebRequest webRequest) {
 
         log.info("GET /api/activities/search?keyword={}", keyword);
 
-        List<Activity> activities = activityService.searchPublishedActivities(keyword);
-        List<ActivityResponseDTO> activityDTOs = activities.stream()
-                .map(ActivityResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+
+        List<ActivityResponseDTO> activityDTOs = activityService.searchPublishedActivities(keyword);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -297,16 +387,17 @@ public class ActivityController {
      * Access: Public
      */
     @GetMapping("/category/{category}")
-    @Transactional(readOnly = true)
     public ResponseEntity<Map<String, Object>> getActivitiesByCategory(
-            @PathVariable String category) {
+            @PathVariable String category,
+            ServletWebRequest webRequest) {
 
         log.info("GET /api/activities/category/{}", category);
 
-        List<Activity> activities = activityService.getPublishedActivitiesByCategory(category);
-        List<ActivityResponseDTO> activityDTOs = activities.stream()
-                .map(ActivityResponseDTO::fromEntity)
-                .collect(Collectors.toList());
+        if (catalogNotModified(webRequest)) {
+            return null;
+        }
+
+        List<ActivityResponseDTO> activityDTOs = activityService.getPublishedActivitiesByCategory(category);
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -341,4 +432,15 @@ public class ActivityController {
 
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Answer a conditional catalog request from the published snapshot's validators
+     * Before the snapshot is built no validators are sent and the request is served normally
+     */
+    private boolean catalogNotModified(ServletWebRequest webRequest) {
+        return activityService.getPublishedCatalogSnapshot()
+                .map(snapshot -> ConditionalRequests.notModified(webRequest, ConditionalRequests.revalidate(),
+                        snapshot.getEtag(), snapshot.getLastModified().toEpochMilli()))
+                .orElse(false);
+    }
 }
@@ -0,0 +1,92 @@
+package com.dive.club.controller;
+
+import com.dive.club.image.ExternalImageCache;
+import com.dive.club.image.ImageDerivativeService;
+import com.dive.club.service.CacheStatisticsService;
+import com.dive.club.service.EmailOutboxDispatcher;
+import com.dive.club.view.ActivityFragmentRenderer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Administrative REST API Controller
+ * Operational endpoints for SuperManagers
+ */
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Slf4j
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    private final CacheStatisticsService cacheStatisticsService;
+    private final ActivityFragmentRenderer activityFragmentRenderer;
+    private final ImageDerivativeService imageDerivativeService;
+    private final ExternalImageCache externalImageCache;
+    private final EmailOutboxDispatcher emailOutboxDispatcher;
+
+    /**
+     * Second-level cache statistics per region, plus the rendered fragment cache, image derivative pool and external image cache
+     * GET /api/admin/cache/stats
+     * Access: SuperManager only
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        log.info("GET /api/admin/cache/stats");
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", cacheStatisticsService.getRegionStatistics());
+        response.put("fragments", activityFragmentRenderer.getStatistics());
+        response.put("images", imageDerivativeService.getStatistics());
+        response.put("externalImages", externalImageCache.getStatistics());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Email outbox: messages per status, latest dead letters and dispatcher counters
+     * GET /api/admin/outbox
+     * Access: SuperManager only
+     */
+    @GetMapping("/outbox")
+    public ResponseEntity<Map<String, Object>> getOutbox() {
+        log.info("GET /api/admin/outbox");
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", emailOutboxDispatcher.getStatistics());
+
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Requeue a dead letter for delivery
+     * POST /api/admin/outbox/{id}/retry
+     * Access: SuperManager only
+     */
+    @PostMapping("/outbox/{id}/retry")
+    public ResponseEntity<Map<String, Object>> retryDeadLetter(@PathVariable Long id) {
+        log.info("POST /api/admin/outbox/{}/retry", id);
+
+        if (!emailOutboxDispatcher.retryDead(id)) {
+            throw new IllegalArgumentException("郵件不存在或不在寄送失敗狀態");
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "郵件已重新排入寄送佇列");
+
+        return ResponseEntity.ok(response);
+    }
+}
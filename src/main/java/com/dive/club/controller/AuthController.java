@@ -5,8 +5,13 @@ import com.dive.club.entity.SuperManager;
 import com.dive.club.entity.User;
 import com.dive.club.enums.UserRole;
 import com.dive.club.repository.UserRepository;
+import com.dive.club.security.ApiTokenService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -15,9 +20,14 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -31,6 +41,8 @@ import java.util.Optional;
 public class AuthController {
 
     private final UserRepository userRepository;
+    private final AuthenticationManager authenticationManager;
+    private final ApiTokenService apiTokenService;
 
     /**
      * Test login endpoint for development/demo
@@ -84,6 +96,46 @@ public class AuthController {
         return "redirect:/";
     }
 
+    /**
+     * Issue a short-lived API access token
+     * POST /auth/token with email and password, or without them when already logged in (session)
+     * Send it as {@code Authorization: Bearer <token>} on /api/** requests
+     */
+    @PostMapping("/token")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> issueToken(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String password,
+            Authentication current) {
+
+        User user;
+        if (email != null && !email.isBlank()) {
+            Authentication authenticated = authenticationManager.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(email.trim(), password));
+            user = (User) authenticated.getPrincipal();
+        } else if (current != null && current.getPrincipal() instanceof User sessionUser) {
+            user = sessionUser;
+        } else {
+            throw new BadCredentialsException("缺少帳號或密碼");
+        }
+
+        ApiTokenService.IssuedToken issued = apiTokenService.issue(user);
+        log.info("API token issued for {} ({})", user.getEmail(), user.getRole());
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("accessToken", issued.token());
+        data.put("tokenType", "Bearer");
+        data.put("expiresAt", issued.expiresAt().toString());
+        data.put("expiresIn", Duration.between(Instant.now(), issued.expiresAt()).toSeconds());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", data);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(response);
+    }
+
     /**
      * NCU Portal login endpoint (placeholder)
      * In production, this would integrate with actual NCU Portal OAuth/SAML
@@ -0,0 +1,182 @@
+package com.dive.club.controller;
+
+import com.dive.club.entity.Manager;
+import com.dive.club.image.ExternalImageCache;
+import com.dive.club.image.ImageDerivativeService;
+import com.dive.club.image.ImageUploadStore;
+import com.dive.club.util.ConditionalRequests;
+import com.dive.club.util.FileResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Image upload and serving
+ * Uploads are stored content-addressed and served from /images/uploads/{hash}.{ext} with
+ * immutable caching. GET /images/derived/{width}/{path} is the resized derivative of
+ * /images/{path} (404 for unknown images); when it is not available (width not offered,
+ * encoding failed or the worker pool is busy) the client is redirected to the original image.
+ * GET /images/external?url=..&sig=.. serves the locally cached copy of an external image URL
+ * signed by this server; when it cannot be fetched the client is redirected to the origin.
+ * Files are written with sendfile (see {@link FileResponses}) and support byte ranges
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class ImageController {
+
+    private static final CacheControl DERIVATIVE_CACHE = CacheControl.maxAge(Duration.ofDays(1)).cachePublic();
+
+    private final ImageDerivativeService imageDerivativeService;
+    private final ImageUploadStore imageUploadStore;
+    private final ExternalImageCache externalImageCache;
+
+    /**
+     * Upload Image
+     * POST /api/images (multipart/form-data, part "file")
+     * Access: Manager, SuperManager
+     */
+    @PostMapping(value = "/api/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<Map<String, Object>> uploadImage(@RequestParam("file") MultipartFile file,
+                                                           @AuthenticationPrincipal Manager manager)
+            throws IOException {
+        log.info("POST /api/images - {} bytes by {}", file.getSize(), manager.getEmail());
+
+        ImageUploadStore.StoredImage stored = imageUploadStore.store(file);
+        imageDerivativeService.prepare(stored.url());
+
+        Map<String, Object> data = new HashMap<>();
+        data.put("url", stored.url());
+        data.put("hash", stored.hash());
+        data.put("contentType", stored.mediaType().toString());
+        data.put("size", stored.size());
+        data.put("duplicate", stored.duplicate());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", stored.duplicate() ? "圖片已存在，沿用既有檔案" : "圖片上傳成功");
+        response.put("data", data);
+
+        return ResponseEntity.status(stored.duplicate() ? HttpStatus.OK : HttpStatus.CREATED)
+                .location(URI.create(stored.url()))
+                .body(response);
+    }
+
+    /**
+     * Uploaded image; the name is its content hash, so it never changes
+     * GET /images/uploads/{hash}.{ext}
+     */
+    @GetMapping(ImageUploadStore.URL_PREFIX + "{name:.+}")
+    public ResponseEntity<Void> getUpload(@PathVariable String name,
+                                          HttpServletRequest request,
+                                          HttpServletResponse response) throws IOException {
+        Optional<Path> file = imageUploadStore.find(name);
+        if (file.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = "\"" + name.substring(0, name.indexOf('.')) + "\"";
+        if (ConditionalRequests.notModified(new ServletWebRequest(request, response),
+                ConditionalRequests.immutable(), etag, -1)) {
+            return null;
+        }
+        FileResponses.send(request, response, file.get(), imageUploadStore.mediaType(name), etag);
+        return null;
+    }
+
+    /**
+     * Resized derivative; immutable when requested with the current ?v= content hash
+     * GET /images/derived/{width}/{path}?v={hash}
+     */
+    @GetMapping(ImageDerivativeService.DERIVED_PREFIX + "{width:\\d+}/**")
+    public ResponseEntity<Void> getDerivative(@PathVariable int width,
+                                              @RequestParam(name = "v", required = false) String version,
+                                              HttpServletRequest request,
+                                              HttpServletResponse response) throws IOException {
+        String prefix = ImageDerivativeService.DERIVED_PREFIX + width + "/";
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(prefix)) {
+            return ResponseEntity.notFound().build();
+        }
+        String relativePath = path.substring(prefix.length());
+        String sourceUrl = imageDerivativeService.sourceUrl(UriUtils.decode(relativePath, StandardCharsets.UTF_8));
+        if (!imageDerivativeService.supports(sourceUrl)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Optional<String> tag = imageDerivativeService.derivativeTag(sourceUrl, width);
+        if (tag.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<Path> derivative = imageDerivativeService.derivative(sourceUrl, width);
+        if (derivative.isEmpty()) {
+            log.debug("Derivative {}w of {} unavailable, redirecting to original", width, sourceUrl);
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create(request.getContextPath() + ImageDerivativeService.IMAGE_PREFIX + relativePath))
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+        String etag = "\"" + tag.get() + "\"";
+        CacheControl cacheControl = imageDerivativeService.isCurrentVersion(sourceUrl, version)
+                ? ConditionalRequests.immutable()
+                : DERIVATIVE_CACHE;
+        if (ConditionalRequests.notModified(new ServletWebRequest(request, response), cacheControl, etag, -1)) {
+            return null;
+        }
+        FileResponses.send(request, response, derivative.get(), MediaType.IMAGE_JPEG, etag);
+        return null;
+    }
+
+    /**
+     * Local copy of an external image
+     * GET /images/external?url={url}&sig={signature}
+     */
+    @GetMapping(ExternalImageCache.URL_PATH)
+    public ResponseEntity<Void> getExternal(@RequestParam String url,
+                                            @RequestParam(name = "sig", required = false) String signature,
+                                            HttpServletRequest request,
+                                            HttpServletResponse response) throws IOException {
+        if (!externalImageCache.supports(url) || !externalImageCache.verify(url, signature)) {
+            return ResponseEntity.notFound().build();
+        }
+        Optional<ExternalImageCache.CachedImage> image = externalImageCache.get(url);
+        if (image.isEmpty()) {
+            log.debug("External image {} unavailable, redirecting to origin", url);
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create(url))
+                    .cacheControl(CacheControl.noStore())
+                    .build();
+        }
+        String etag = image.get().etag();
+        CacheControl cacheControl = CacheControl.maxAge(externalImageCache.ttl()).cachePublic();
+        if (ConditionalRequests.notModified(new ServletWebRequest(request, response), cacheControl, etag, -1)) {
+            return null;
+        }
+        FileResponses.send(request, response, image.get().file(), image.get().mediaType(), etag);
+        return null;
+    }
+}
@@ -1,16 +1,27 @@
 package com.dive.club.controller;
 
+import com.dive.club.dto.ActivityCatalogFilter;
 import com.dive.club.dto.ActivityCreateDTO;
+import com.dive.club.dto.ActivityResponseDTO;
+import com.dive.club.dto.ActivityStamp;
 import com.dive.club.dto.ActivityUpdateDTO;
 import com.dive.club.dto.AuditDecisionDTO;
+import com.dive.club.dto.AuditQueueFilter;
+import com.dive.club.dto.CursorPage;
+import com.dive.club.dto.DashboardStatsDTO;
 import com.dive.club.entity.Activity;
 import com.dive.club.entity.Manager;
 import com.dive.club.entity.User;
 import com.dive.club.enums.ActivityStatus;
 import com.dive.club.service.ActivityService;
+import com.dive.club.service.DashboardService;
+import com.dive.club.util.ConditionalRequests;
+import com.dive.club.util.EntityTags;
+import com.dive.club.view.ResponsiveImages;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -18,6 +29,7 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.util.List;
@@ -31,24 +43,20 @@ import java.util.List;
 @Slf4j
 public class ViewController {
 
+    private static final int AUDIT_PAGE_SIZE = 20;
+
     private final ActivityService activityService;
+    private final DashboardService dashboardService;
+    private final ResponsiveImages images;
 
     @GetMapping("/")
-    @Transactional(readOnly = true)
     public String index(Model model, @AuthenticationPrincipal User currentUser) {
-        List<Activity> publishedActivities = activityService.getAllPublishedActivities();
-        List<Activity> pendingActivities = activityService.getActivitiesByStatus(ActivityStatus.PENDING_REVIEW);
-
-        // Get recent activities (up to 3 for homepage display)
-        List<Activity> recentActivities = publishedActivities.stream()
-                .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                .limit(3)
-                .toList();
+        DashboardStatsDTO stats = dashboardService.getStats();
 
         model.addAttribute("user", currentUser);
-        model.addAttribute("totalActivities", publishedActivities.size());
-        model.addAttribute("pendingCount", pendingActivities.size());
-        model.addAttribute("recentActivities", recentActivities);
+        model.addAttribute("totalActivities", stats.getPublishedCount());
+        model.addAttribute("pendingCount", stats.getPendingCount());
+        model.addAttribute("recentActivities", stats.getRecentActivities());
         return "index";
     }
 
@@ -60,27 +68,21 @@ public class ViewController {
     // ==================== Activity List (SSR) ====================
 
     @GetMapping("/activity/list")
-    @Transactional(readOnly = true)
     public String activityList(
             Model model,
             @AuthenticationPrincipal User currentUser,
-            @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) String category) {
+            @ModelAttribute("filter") ActivityCatalogFilter filter,
+            @RequestParam(required = false) String cursor) {
 
-        List<Activity> activities;
+        CursorPage<ActivityResponseDTO> page = activityService.getPublishedCatalogPage(
+                filter, cursor, ActivityService.DEFAULT_PAGE_SIZE);
 
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            activities = activityService.searchPublishedActivities(keyword);
-        } else if (category != null && !category.trim().isEmpty()) {
-            activities = activityService.getPublishedActivitiesByCategory(category);
-        } else {
-            activities = activityService.getAllPublishedActivities();
-        }
-
-        model.addAttribute("activities", activities);
+        model.addAttribute("activities", page.getItems());
+        model.addAttribute("nextCursor", page.getNextCursor());
+        model.addAttribute("firstPage", cursor == null || cursor.isBlank());
         model.addAttribute("currentUser", currentUser);
-        model.addAttribute("keyword", keyword);
-        model.addAttribute("category", category);
+        model.addAttribute("keyword", filter.getKeyword());
+        model.addAttribute("category", filter.getCategory());
         return "activity_list";
     }
 
@@ -166,6 +168,7 @@ public class ViewController {
             @PathVariable Long id,
             @Valid @ModelAttribute ActivityUpdateDTO dto,
             BindingResult bindingResult,
+            @RequestParam(required = false) Long version,
             @RequestParam(required = false, defaultValue = "false") boolean submitForReview,
             @AuthenticationPrincipal Manager manager,
             RedirectAttributes redirectAttributes,
@@ -187,10 +190,10 @@ public class ViewController {
         }
 
         try {
-            Activity activity = activityService.updateActivity(id, dto, manager);
+            Activity activity = activityService.updateActivity(id, dto, manager, version);
 
             if (submitForReview) {
-                activityService.submitForReview(activity.getActivityId(), manager);
+                activityService.submitForReview(activity.getActivityId(), manager, activity.getVersion());
                 redirectAttributes.addFlashAttribute("successMessage", "活動已更新並重新送交審核");
             } else {
                 redirectAttributes.addFlashAttribute("successMessage", "活動已更新");
@@ -219,13 +222,22 @@ public class ViewController {
     // ==================== Activity Detail (SSR) ====================
 
     @GetMapping("/activity/{id}")
-    @Transactional(readOnly = true)
     public String activityDetail(
             @PathVariable Long id,
             Model model,
-            @AuthenticationPrincipal User currentUser) {
+            @AuthenticationPrincipal User currentUser,
+            ServletWebRequest webRequest) {
+
+        // The page shows viewer-specific actions and signed image URLs, so the validator includes both
+        ActivityStamp stamp = activityService.getActivityStamp(id);
+        String etag = EntityTags.forViewer(stamp.getVersion(), currentUser != null ? currentUser.getId() : null,
+                images.markupVersion());
+        if (ConditionalRequests.notModified(webRequest, ConditionalRequests.revalidatePrivate(),
+                etag, stamp.getLastModifiedMillis())) {
+            return null;
+        }
 
-        Activity activity = activityService.getActivityById(id);
+        Activity activity = activityService.getActivityIncludingArchived(id);
         model.addAttribute("activity", activity);
         model.addAttribute("currentUser", currentUser);
         return "activity_detail";
@@ -305,42 +317,15 @@ public class ViewController {
     public String auditList(
             Model model,
             @AuthenticationPrincipal User currentUser,
-            @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) String category,
-            @RequestParam(required = false, defaultValue = "newest") String sortBy) {
-
-        List<Activity> pendingActivities = activityService.getActivitiesByStatus(ActivityStatus.PENDING_REVIEW);
-
-        // Filter by keyword if provided
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String lowerKeyword = keyword.toLowerCase();
-            pendingActivities = pendingActivities.stream()
-                    .filter(a -> a.getTitle().toLowerCase().contains(lowerKeyword) ||
-                            a.getCreator().getName().toLowerCase().contains(lowerKeyword))
-                    .toList();
-        }
-
-        // Filter by category if provided
-        if (category != null && !category.trim().isEmpty()) {
-            pendingActivities = pendingActivities.stream()
-                    .filter(a -> a.getCategory().equalsIgnoreCase(category))
-                    .toList();
-        }
+            @ModelAttribute("filter") AuditQueueFilter filter,
+            @RequestParam(defaultValue = "0") int page) {
 
-        // Sort by creation time
-        if ("oldest".equals(sortBy)) {
-            pendingActivities = pendingActivities.stream()
-                    .sorted((a, b) -> a.getCreatedAt().compareTo(b.getCreatedAt()))
-                    .toList();
-        } else {
-            pendingActivities = pendingActivities.stream()
-                    .sorted((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()))
-                    .toList();
-        }
+        Page<Activity> queuePage = activityService.getAuditQueuePage(filter, page, AUDIT_PAGE_SIZE);
 
-        model.addAttribute("pendingActivities", pendingActivities);
+        model.addAttribute("pendingActivities", queuePage.getContent());
         model.addAttribute("currentUser", currentUser);
-        model.addAttribute("pendingCount", pendingActivities.size());
+        model.addAttribute("pendingCount", queuePage.getTotalElements());
+        model.addAttribute("queuePage", queuePage);
         return "activity_audit_list";
     }
 
@@ -366,6 +351,7 @@ public class ViewController {
     @PreAuthorize("hasRole('ADMIN')")
     public String approveActivity(
             @PathVariable Long id,
+            @RequestParam(required = false) Long version,
             RedirectAttributes redirectAttributes) {
 
         log.info("Approving activity {}", id);
@@ -374,7 +360,7 @@ public class ViewController {
             AuditDecisionDTO decision = new AuditDecisionDTO();
             decision.setAction(AuditDecisionDTO.AuditAction.APPROVE);
 
-            activityService.auditActivity(id, decision);
+            activityService.auditActivity(id, decision, version);
             redirectAttributes.addFlashAttribute("successMessage", "活動已核准發佈");
         } catch (Exception e) {
             log.error("Error approving activity", e);
@@ -389,6 +375,7 @@ public class ViewController {
     public String rejectActivity(
             @PathVariable Long id,
             @RequestParam String reason,
+            @RequestParam(required = false) Long version,
             RedirectAttributes redirectAttributes) {
 
         log.info("Rejecting activity {} with reason: {}", id, reason);
@@ -398,7 +385,7 @@ public class ViewController {
             decision.setAction(AuditDecisionDTO.AuditAction.REJECT);
             decision.setReason(reason);
 
-            activityService.auditActivity(id, decision);
+            activityService.auditActivity(id, decision, version);
             redirectAttributes.addFlashAttribute("successMessage", "活動已退回修改");
         } catch (Exception e) {
             log.error("Error rejecting activity", e);
@@ -433,10 +420,9 @@ public class ViewController {
     public String auditListOld(
             Model model,
             @AuthenticationPrincipal User currentUser,
-            @RequestParam(required = false) String keyword,
-            @RequestParam(required = false) String category,
-            @RequestParam(required = false, defaultValue = "newest") String sortBy) {
-        return auditList(model, currentUser, keyword, category, sortBy);
+            @ModelAttribute("filter") AuditQueueFilter filter,
+            @RequestParam(defaultValue = "0") int page) {
+        return auditList(model, currentUser, filter, page);
     }
 
     @GetMapping("/activities/audit/{id}")
@@ -0,0 +1,9 @@
+package com.dive.club.datasource;
+
+/**
+ * Lookup keys of the read/write routing DataSource
+ */
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA
+}
@@ -0,0 +1,55 @@
+package com.dive.club.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Routes read-only transactions to the replica and everything else to the primary
+ * Must be wrapped in a LazyConnectionDataSourceProxy so the physical connection is
+ * only fetched once the transaction's read-only flag is known. JPA transactions take
+ * the route chosen by ReplicaAwareTransactionManager when they began
+ */
+@Slf4j
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagGuard lagGuard;
+
+    public ReadWriteRoutingDataSource(ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            DataSourceRole role = ReplicaAwareTransactionManager.currentRoute();
+            if (role == null) {
+                role = lagGuard.requiresPrimary() ? DataSourceRole.PRIMARY : DataSourceRole.REPLICA;
+            }
+            log.debug("Read-only transaction routed to {}", role);
+            return role;
+        }
+        trackWrite();
+        return DataSourceRole.PRIMARY;
+    }
+
+    /**
+     * Remember the writing user once the surrounding read-write transaction commits
+     */
+    private void trackWrite() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String username = lagGuard.currentUser();
+        if (username == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lagGuard.recordWrite(username);
+            }
+        });
+    }
+}
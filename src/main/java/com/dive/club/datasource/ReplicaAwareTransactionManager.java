@@ -0,0 +1,85 @@
+package com.dive.club.datasource;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA transaction manager that decides at begin where a read-only transaction reads
+ * Replica-routed sessions switch to CacheMode.IGNORE so they never put into the second-level
+ * cache: a lagging replica would store old rows under a fresh timestamp for every node to serve.
+ * (CacheMode.GET is not enough, Hibernate still stores query results after a query cache miss.)
+ * The decision has to be made here because Hibernate fixes a query's cache mode before the
+ * routing DataSource is asked for a connection
+ */
+public class ReplicaAwareTransactionManager extends JpaTransactionManager {
+
+    private static final Object ROUTE_KEY = new Object();
+
+    private final ReplicaLagGuard lagGuard;
+
+    public ReplicaAwareTransactionManager(ReplicaLagGuard lagGuard) {
+        this.lagGuard = lagGuard;
+    }
+
+    /**
+     * Where the current read-only transaction reads, or null when it did not begin here
+     */
+    static DataSourceRole currentRoute() {
+        Object route = TransactionSynchronizationManager.getResource(ROUTE_KEY);
+        return route instanceof Route r ? r.role() : null;
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        super.doBegin(transaction, definition);
+        if (!definition.isReadOnly()) {
+            return;
+        }
+        DataSourceRole role = lagGuard.requiresPrimary() ? DataSourceRole.PRIMARY : DataSourceRole.REPLICA;
+        Session session = null;
+        CacheMode previous = null;
+        if (role == DataSourceRole.REPLICA) {
+            EntityManagerHolder holder =
+                    (EntityManagerHolder) TransactionSynchronizationManager.getResource(obtainEntityManagerFactory());
+            session = holder.getEntityManager().unwrap(Session.class);
+            previous = session.getCacheMode();
+            session.setCacheMode(CacheMode.IGNORE);
+        }
+        TransactionSynchronizationManager.bindResource(ROUTE_KEY, new Route(role, session, previous));
+    }
+
+    @Override
+    protected Object doSuspend(Object transaction) {
+        Object route = TransactionSynchronizationManager.unbindResourceIfPossible(ROUTE_KEY);
+        return new SuspendedRoute(super.doSuspend(transaction), route);
+    }
+
+    @Override
+    protected void doResume(Object transaction, Object suspendedResources) {
+        SuspendedRoute suspended = (SuspendedRoute) suspendedResources;
+        super.doResume(transaction, suspended.resources());
+        if (suspended.route() != null) {
+            TransactionSynchronizationManager.bindResource(ROUTE_KEY, suspended.route());
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        Object route = TransactionSynchronizationManager.unbindResourceIfPossible(ROUTE_KEY);
+        // the session outlives the transaction under open-in-view
+        if (route instanceof Route r && r.session() != null && r.session().isOpen()) {
+            r.session().setCacheMode(r.previousCacheMode());
+        }
+        super.doCleanupAfterCompletion(transaction);
+    }
+
+    private record Route(DataSourceRole role, Session session, CacheMode previousCacheMode) {
+    }
+
+    private record SuspendedRoute(Object resources, Object route) {
+    }
+}
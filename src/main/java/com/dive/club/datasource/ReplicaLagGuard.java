@@ -0,0 +1,138 @@
+package com.dive.club.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-your-writes guard for replica routing
+ * After a user commits a write, their read-only transactions stay on the primary
+ * for a configurable window so replication lag never hides their own changes.
+ * The write time travels with the client in the LAST_WRITE_COOKIE cookie, so the next
+ * request may land on any node; the per-node map only covers clients that drop cookies
+ */
+@Slf4j
+public class ReplicaLagGuard {
+
+    public static final String LAST_WRITE_COOKIE = "last_write";
+
+    private final long windowMillis;
+    private final Map<String, Long> lastWriteByUser = new ConcurrentHashMap<>();
+
+    public ReplicaLagGuard(Duration window) {
+        this.windowMillis = window.toMillis();
+    }
+
+    /**
+     * Current authenticated user name, or null for anonymous/background work
+     */
+    public String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || "anonymousUser".equals(authentication.getPrincipal())) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    /**
+     * Record a committed write by the given user, on this node and in the client's cookie
+     */
+    public void recordWrite(String username) {
+        if (username == null || windowMillis <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        lastWriteByUser.put(username, now);
+
+        HttpServletResponse response = currentResponse();
+        if (response == null || response.isCommitted()) {
+            return;
+        }
+        ResponseCookie cookie = ResponseCookie.from(LAST_WRITE_COOKIE, Long.toString(now))
+                .path("/")
+                .maxAge(Duration.ofMillis(windowMillis).plusSeconds(1))
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    /**
+     * Whether the current user wrote recently enough that the replica may still be behind
+     */
+    public boolean requiresPrimary() {
+        long now = System.currentTimeMillis();
+        Long cookieWrite = lastWriteFromCookie();
+        if (cookieWrite != null && isRecent(cookieWrite, now)) {
+            log.debug("Request carries a write within the lag window, reading from primary");
+            return true;
+        }
+        String username = currentUser();
+        if (username == null) {
+            return false;
+        }
+        Long lastWrite = lastWriteByUser.get(username);
+        if (lastWrite != null && isRecent(lastWrite, now)) {
+            log.debug("User {} wrote within the lag window, reading from primary", username);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Drop writes older than the window; users who never read again would otherwise stay forever
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.read-your-writes-prune-interval:PT1M}")
+    public void pruneExpired() {
+        long now = System.currentTimeMillis();
+        lastWriteByUser.values().removeIf(lastWrite -> !isRecent(lastWrite, now));
+    }
+
+    // either side of now: cookies written on another node carry its clock, and a forged
+    // future time still cannot pin the client to the primary for longer than one window
+    private boolean isRecent(long lastWrite, long now) {
+        return Math.abs(now - lastWrite) < windowMillis;
+    }
+
+    private static Long lastWriteFromCookie() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return null;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        if (request.getCookies() == null) {
+            return null;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (LAST_WRITE_COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static HttpServletResponse currentResponse() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes
+                ? servletAttributes.getResponse()
+                : null;
+    }
+}
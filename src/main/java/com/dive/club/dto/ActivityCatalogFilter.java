@@ -0,0 +1,57 @@
+package com.dive.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Filter criteria for the published activity catalog
+ * All fields are optional and combined with AND
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityCatalogFilter {
+
+    private String keyword;
+
+    private String category;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateFrom; // 開始日期（含）
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate dateTo; // 結束日期（含）
+
+    private BigDecimal minCost;
+
+    private BigDecimal maxCost;
+
+    public boolean hasKeyword() {
+        return keyword != null && !keyword.trim().isEmpty();
+    }
+
+    public boolean hasCategory() {
+        return category != null && !category.trim().isEmpty();
+    }
+
+    public String getCategoryOrNull() {
+        return hasCategory() ? category.trim() : null;
+    }
+
+    public LocalDateTime getStartFrom() {
+        return dateFrom != null ? dateFrom.atStartOfDay() : null;
+    }
+
+    /**
+     * Exclusive upper bound of the start time range (day after dateTo)
+     */
+    public LocalDateTime getStartBefore() {
+        return dateTo != null ? dateTo.plusDays(1).atStartOfDay() : null;
+    }
+}
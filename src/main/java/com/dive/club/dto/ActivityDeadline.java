@@ -0,0 +1,17 @@
+package com.dive.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * End time of a published activity, loaded without the entity to (re)build the end timer
+ */
+@Data
+@AllArgsConstructor
+public class ActivityDeadline {
+
+    private Long activityId;
+    private LocalDateTime endTime;
+}
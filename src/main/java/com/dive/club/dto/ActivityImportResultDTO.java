@@ -0,0 +1,42 @@
+package com.dive.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a bulk activity import
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityImportResultDTO {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    /**
+     * Validation or parse failure for one input row
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long row; // 1-based data row number (CSV header excluded)
+        private List<String> messages;
+    }
+
+    public void addError(long row, List<String> messages) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, messages));
+        }
+    }
+}
@@ -34,6 +34,7 @@ public class ActivityResponseDTO {
     private String creatorEmail;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     /**
      * Convert Activity entity to DTO
@@ -57,6 +58,7 @@ public class ActivityResponseDTO {
         dto.setCreatorEmail(activity.getCreator().getEmail());
         dto.setCreatedAt(activity.getCreatedAt());
         dto.setUpdatedAt(activity.getUpdatedAt());
+        dto.setVersion(activity.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,30 @@
+package com.dive.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Cache validators of a single activity (version and last update time)
+ * Loaded on their own so conditional GETs can be answered without loading the entity
+ */
+@Data
+@AllArgsConstructor
+public class ActivityStamp {
+
+    private Long version;
+    private LocalDateTime updatedAt;
+
+    public static ActivityStamp of(ActivityResponseDTO dto) {
+        return new ActivityStamp(dto.getVersion(), dto.getUpdatedAt());
+    }
+
+    /**
+     * Last update time as epoch milliseconds, or -1 when unknown
+     */
+    public long getLastModifiedMillis() {
+        return updatedAt == null ? -1 : updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
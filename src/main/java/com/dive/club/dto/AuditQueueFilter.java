@@ -0,0 +1,33 @@
+package com.dive.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filter and sort criteria for the audit queue
+ * keyword matches activity title or creator name; category is case-insensitive
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditQueueFilter {
+
+    private String keyword;
+
+    private String category;
+
+    private String sortBy = "newest"; // newest | oldest (by submission time)
+
+    public boolean hasKeyword() {
+        return keyword != null && !keyword.trim().isEmpty();
+    }
+
+    public boolean hasCategory() {
+        return category != null && !category.trim().isEmpty();
+    }
+
+    public boolean isOldestFirst() {
+        return "oldest".equals(sortBy);
+    }
+}
@@ -0,0 +1,27 @@
+package com.dive.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a chunked bulk status transition
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkTransitionResult {
+
+    private List<Integer> chunkCounts = new ArrayList<>(); // rows transitioned per chunk
+
+    public void addChunk(int count) {
+        chunkCounts.add(count);
+    }
+
+    public int getTotal() {
+        return chunkCounts.stream().mapToInt(Integer::intValue).sum();
+    }
+}
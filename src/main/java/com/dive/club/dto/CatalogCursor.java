@@ -0,0 +1,47 @@
+package com.dive.club.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for catalog pagination
+ * Points at the last (startTime, activityId) of the previous page
+ */
+@Data
+@AllArgsConstructor
+public class CatalogCursor {
+
+    private LocalDateTime startTime;
+    private Long activityId;
+
+    /**
+     * Encode as a URL-safe token
+     */
+    public String encode() {
+        String raw = startTime + "|" + activityId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}; blank tokens mean the first page
+     */
+    public static CatalogCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            return new CatalogCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("無效的分頁游標");
+        }
+    }
+}
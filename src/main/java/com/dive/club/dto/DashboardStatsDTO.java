@@ -0,0 +1,36 @@
+package com.dive.club.dto;
+
+import com.dive.club.enums.ActivityStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Homepage dashboard figures
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardStatsDTO {
+
+    private Map<ActivityStatus, Long> countsByStatus = new EnumMap<>(ActivityStatus.class);
+    private List<ActivityResponseDTO> recentActivities = List.of(); // newest published activities
+    private LocalDateTime generatedAt;
+
+    public long getCount(ActivityStatus status) {
+        return countsByStatus.getOrDefault(status, 0L);
+    }
+
+    public long getPublishedCount() {
+        return getCount(ActivityStatus.PUBLISHED);
+    }
+
+    public long getPendingCount() {
+        return getCount(ActivityStatus.PENDING_REVIEW);
+    }
+}
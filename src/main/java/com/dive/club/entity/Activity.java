@@ -6,6 +6,8 @@ import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -18,14 +20,23 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "activities")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "activities")
+@NamedEntityGraph(name = Activity.WITH_CREATOR, attributeNodes = @NamedAttributeNode("creator"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Activity {
 
+    /**
+     * Entity graph that fetches the creator together with the activity
+     */
+    public static final String WITH_CREATOR = "Activity.withCreator";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long activityId;
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_seq")
+    @SequenceGenerator(name = "activity_seq", sequenceName = "activities_seq", allocationSize = 50)
+    private Long activityId; // pooled sequence ids allow Hibernate to batch inserts
 
     @Column(nullable = false, length = 200)
     @NotBlank(message = "活動標題不能為空")
@@ -81,6 +92,10 @@ public class Activity {
     @JoinColumn(name = "creator_id", nullable = false)
     private Manager creator; // 活動建立者
 
+    @Version
+    @Column(nullable = false)
+    private Long version; // 樂觀鎖版本，對外以 ETag 呈現
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,104 @@
+package com.dive.club.entity;
+
+import com.dive.club.enums.ActivityStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Archived Activity - 封存活動
+ * Read-only copy of an ENDED/CANCELLED activity moved out of the hot table by the
+ * archival job. Rows are written with set-based SQL, never through this entity
+ */
+@Entity
+@Table(name = "activities_archive")
+@Immutable
+@Data
+@NoArgsConstructor
+public class ArchivedActivity {
+
+    @Id
+    private Long activityId;
+
+    @Column(nullable = false, length = 200)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(nullable = false, length = 100)
+    private String category;
+
+    @Column(nullable = false)
+    private LocalDateTime startTime;
+
+    @Column(nullable = false)
+    private LocalDateTime endTime;
+
+    @Column(nullable = false, length = 300)
+    private String location;
+
+    @Column(nullable = false)
+    private Integer maxParticipants;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal cost;
+
+    @Column(columnDefinition = "TEXT")
+    private String qualifications;
+
+    @Column(length = 500)
+    private String imageUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 50)
+    private ActivityStatus status;
+
+    @Column(columnDefinition = "TEXT")
+    private String rejectionReason;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "creator_id", nullable = false)
+    private Manager creator;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+
+    /**
+     * Detached Activity view of this row for the regular read paths (never persist it)
+     */
+    public Activity toActivity() {
+        Activity activity = new Activity();
+        activity.setActivityId(activityId);
+        activity.setTitle(title);
+        activity.setDescription(description);
+        activity.setCategory(category);
+        activity.setStartTime(startTime);
+        activity.setEndTime(endTime);
+        activity.setLocation(location);
+        activity.setMaxParticipants(maxParticipants);
+        activity.setCost(cost);
+        activity.setQualifications(qualifications);
+        activity.setImageUrl(imageUrl);
+        activity.setStatus(status);
+        activity.setRejectionReason(rejectionReason);
+        activity.setCreator(creator);
+        activity.setCreatedAt(createdAt);
+        activity.setUpdatedAt(updatedAt);
+        activity.setVersion(version);
+        return activity;
+    }
+}
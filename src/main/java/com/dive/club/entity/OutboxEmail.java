@@ -0,0 +1,85 @@
+package com.dive.club.entity;
+
+import com.dive.club.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox Email - 待寄送郵件
+ * A notification written in the same transaction as the change it reports and
+ * delivered afterwards by EmailOutboxDispatcher
+ */
+@Entity
+@Table(name = "email_outbox")
+@Data
+@NoArgsConstructor
+public class OutboxEmail {
+
+    public enum Type {
+        SUBMISSION,
+        ADMIN_SUBMISSION,
+        ADMIN_DIGEST,
+        APPROVAL,
+        REJECTION
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "message_type", nullable = false, length = 50)
+    private Type type;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false, length = 300)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body; // plain text
+
+    @Column(columnDefinition = "TEXT")
+    private String htmlBody; // optional HTML alternative
+
+    private Long activityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private OutboxStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    public static OutboxEmail pending(Type type, String recipient, String subject,
+                                      String body, String htmlBody, Long activityId) {
+        OutboxEmail email = new OutboxEmail();
+        email.setType(type);
+        email.setRecipient(recipient);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setHtmlBody(htmlBody);
+        email.setActivityId(activityId);
+        email.setStatus(OutboxStatus.PENDING);
+        email.setAttempts(0);
+        LocalDateTime now = LocalDateTime.now();
+        email.setNextAttemptAt(now);
+        email.setCreatedAt(now);
+        return email;
+    }
+}
@@ -0,0 +1,33 @@
+package com.dive.club.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Submission Digest Entry - 待彙整的送審通知
+ * An activity submitted for review since the last SuperManager digest email
+ */
+@Entity
+@Table(name = "submission_digest_entries")
+@Data
+@NoArgsConstructor
+public class SubmissionDigestEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long activityId;
+
+    @Column(nullable = false)
+    private LocalDateTime submittedAt;
+
+    public SubmissionDigestEntry(Long activityId, LocalDateTime submittedAt) {
+        this.activityId = activityId;
+        this.submittedAt = submittedAt;
+    }
+}
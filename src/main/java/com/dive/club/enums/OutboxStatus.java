@@ -0,0 +1,40 @@
+package com.dive.club.enums;
+
+/**
+ * Outbox Email Status
+ *
+ * PENDING -> SENDING -> SENT
+ * ^ |
+ * +--------+ (retry with backoff) -> DEAD after app.mail.outbox.max-attempts
+ */
+public enum OutboxStatus {
+    /**
+     * 待寄送 - Waiting for its next attempt
+     */
+    PENDING("待寄送"),
+
+    /**
+     * 寄送中 - Claimed by a dispatcher; reclaimed when the lease expires
+     */
+    SENDING("寄送中"),
+
+    /**
+     * 已寄出 - Accepted by the SMTP server
+     */
+    SENT("已寄出"),
+
+    /**
+     * 寄送失敗 - Gave up after the last attempt (dead letter)
+     */
+    DEAD("寄送失敗");
+
+    private final String displayName;
+
+    OutboxStatus(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
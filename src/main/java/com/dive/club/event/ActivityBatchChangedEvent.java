@@ -0,0 +1,21 @@
+package com.dive.club.event;
+
+import com.dive.club.event.ActivityChangedEvent.ChangeType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Application event for set-based transitions that change many activities at once
+ * without loading them (e.g. the bulk ENDED update). Carries only the affected ids.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class ActivityBatchChangedEvent {
+
+    private final List<Long> activityIds;
+    private final ChangeType type;
+}
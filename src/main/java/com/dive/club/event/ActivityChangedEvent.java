@@ -0,0 +1,37 @@
+package com.dive.club.event;
+
+import com.dive.club.entity.Activity;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published by ActivityService whenever an activity changes.
+ * Listeners that maintain derived state (search index, caches) react to it
+ * after the surrounding transaction commits.
+ */
+@Getter
+@AllArgsConstructor
+@ToString(exclude = "activity")
+public class ActivityChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        SUBMITTED,
+        APPROVED,
+        REJECTED,
+        CANCELLED,
+        ENDED,
+        DELETED,
+        ARCHIVED
+    }
+
+    private final Long activityId;
+    private final Activity activity;
+    private final ChangeType type;
+
+    public static ActivityChangedEvent of(Activity activity, ChangeType type) {
+        return new ActivityChangedEvent(activity.getActivityId(), activity, type);
+    }
+}
@@ -0,0 +1,18 @@
+package com.dive.club.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Application event published when a notification is written to the email outbox.
+ * The dispatcher wakes up once the surrounding transaction commits instead of
+ * waiting for its next poll.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class OutboxEmailQueuedEvent {
+
+    private final Long emailId;
+}
@@ -0,0 +1,11 @@
+package com.dive.club.exception;
+
+/**
+ * Exception thrown when a conditional write targets an outdated activity version
+ */
+public class ActivityVersionConflictException extends RuntimeException {
+
+    public ActivityVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,497 @@
+package com.dive.club.image;
+
+import com.dive.club.security.HmacSigner;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.SystemDefaultDnsResolver;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Local copies of external activity images (imageUrl pointing at another host)
+ * Pages reference /images/external?url={url}&sig={hmac} instead of the third-party URL; only URLs
+ * signed by this server are fetched, so the endpoint is not an open proxy. An image is fetched
+ * once (concurrent requests for the same URL share one fetch), validated (image/* Content-Type,
+ * JPEG/PNG/GIF/WebP signature, max-file-size) and kept on disk for ttl in an LRU bounded by total
+ * bytes. Expired images are refetched; when the origin fails the stale copy is served and the
+ * failure is remembered for failure-ttl. Origins resolving to loopback, private or link-local
+ * addresses are refused (also on redirects) unless allow-private-hosts is set, as it is for a
+ * local test origin. The check runs in the HTTP client's DNS resolver, so the connection goes to
+ * the address that was vetted (no DNS rebinding between check and connect). connect-timeout and
+ * read-timeout bound every socket read, and the whole body must arrive within read-timeout
+ */
+@Component
+@Slf4j
+public class ExternalImageCache {
+
+    public static final String URL_PATH = "/images/external";
+
+    private static final int SIGNATURE_LENGTH = 22; // base64url characters kept from the HMAC
+    private static final int MAX_REDIRECTS = 3;
+    private static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 303, 307, 308);
+    private static final Pattern FILE_NAME = Pattern.compile("([0-9a-f]{64})\\.(jpg|png|gif|webp)");
+
+    private final Path directory;
+    private final long maxCacheSize;
+    private final long maxFileSize;
+    private final Duration ttl;
+    private final Duration failureTtl;
+    private final Duration readTimeout;
+    private final boolean allowPrivateHosts;
+    private final HmacSigner signer;
+    private final CloseableHttpClient httpClient;
+
+    // access-ordered: iteration starts at the least recently used image; guarded by this
+    private final LinkedHashMap<String, CachedImage> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes; // guarded by this
+
+    private final Map<String, CompletableFuture<Optional<CachedImage>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Instant> failedUntil = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong fetches = new AtomicLong();
+    private final AtomicLong fetchFailures = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ExternalImageCache(@Value("${app.image.proxy.cache-dir}") Path directory,
+                              @Value("${app.image.proxy.max-cache-size:256MB}") DataSize maxCacheSize,
+                              @Value("${app.image.proxy.max-file-size:5MB}") DataSize maxFileSize,
+                              @Value("${app.image.proxy.ttl:1d}") Duration ttl,
+                              @Value("${app.image.proxy.failure-ttl:5m}") Duration failureTtl,
+                              @Value("${app.image.proxy.connect-timeout:3s}") Duration connectTimeout,
+                              @Value("${app.image.proxy.read-timeout:10s}") Duration readTimeout,
+                              @Value("${app.image.proxy.allow-private-hosts:false}") boolean allowPrivateHosts,
+                              @Value("${app.image.proxy.signing-key:}") String signingKey,
+                              @Value("${app.security.allow-ephemeral-keys:false}") boolean allowEphemeralKeys) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.maxCacheSize = maxCacheSize.toBytes();
+        this.maxFileSize = maxFileSize.toBytes();
+        this.ttl = ttl;
+        this.failureTtl = failureTtl;
+        this.readTimeout = readTimeout;
+        this.allowPrivateHosts = allowPrivateHosts;
+        this.signer = StringUtils.hasText(signingKey)
+                ? HmacSigner.fromBase64("app.image.proxy.signing-key", signingKey)
+                : HmacSigner.ephemeral("app.image.proxy.signing-key", "Proxied image URLs", allowEphemeralKeys);
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setDnsResolver(new VettingDnsResolver())
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.of(connectTimeout))
+                                .setSocketTimeout(Timeout.of(readTimeout))
+                                .build())
+                        .build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .disableRedirectHandling() // followed by hand so every hop is checked
+                .disableCookieManagement()
+                .build();
+        try {
+            Files.createDirectories(this.directory);
+            loadExisting();
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法建立外部圖片快取目錄: " + this.directory, e);
+        }
+        log.info("External image cache at {} ({} image(s), {} of {} bytes, ttl {})",
+                this.directory, entries.size(), totalBytes, this.maxCacheSize, ttl);
+    }
+
+    /**
+     * Whether the URL is an absolute http(s) URL that can be proxied
+     */
+    public boolean supports(String url) {
+        if (!StringUtils.hasText(url)) {
+            return false;
+        }
+        String lower = url.trim().toLowerCase(Locale.ROOT);
+        if (!lower.startsWith("http://") && !lower.startsWith("https://")) {
+            return false;
+        }
+        try {
+            return URI.create(url.trim()).getHost() != null;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Signed local URL serving the external image
+     */
+    public String proxyUrl(String url) {
+        String trimmed = url.trim();
+        return URL_PATH + "?url=" + URLEncoder.encode(trimmed, StandardCharsets.UTF_8) + "&sig=" + sign(trimmed);
+    }
+
+    /**
+     * Whether the signature was issued by {@link #proxyUrl} for this URL
+     */
+    public boolean verify(String url, String signature) {
+        return url != null && HmacSigner.matches(sign(url), signature);
+    }
+
+    /**
+     * Identifier of the signing key; pages embedding proxy URLs include it in their validators
+     */
+    public String signingKeyId() {
+        return signer.keyId();
+    }
+
+    /**
+     * How long browsers may keep a proxied image
+     */
+    public Duration ttl() {
+        return ttl;
+    }
+
+    /**
+     * The cached copy of an external image, fetching it when missing or expired
+     * Empty when the image cannot be fetched and no copy (not even a stale one) exists
+     */
+    public Optional<CachedImage> get(String url) {
+        String key = key(url);
+        CachedImage cached = lookup(key);
+        if (cached != null && !isExpired(cached)) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        Instant retryAt = failedUntil.get(key);
+        if (retryAt != null && Instant.now().isBefore(retryAt)) {
+            return Optional.ofNullable(cached);
+        }
+
+        CompletableFuture<Optional<CachedImage>> flight = new CompletableFuture<>();
+        CompletableFuture<Optional<CachedImage>> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return existing.join().or(() -> Optional.ofNullable(cached));
+        }
+        Optional<CachedImage> result = Optional.empty();
+        try {
+            CachedImage current = lookup(key); // a fetch may have finished since the first lookup
+            result = current != null && !isExpired(current) ? Optional.of(current) : fetch(key, url.trim());
+        } finally {
+            inFlight.remove(key, flight);
+            flight.complete(result);
+        }
+        return result.or(() -> Optional.ofNullable(cached));
+    }
+
+    /**
+     * Cache statistics
+     */
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("images", entries.size());
+        stats.put("bytes", totalBytes);
+        stats.put("maxBytes", maxCacheSize);
+        stats.put("hits", hits.get());
+        stats.put("fetches", fetches.get());
+        stats.put("fetchFailures", fetchFailures.get());
+        stats.put("evictions", evictions.get());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+
+    private Optional<CachedImage> fetch(String key, String url) {
+        fetches.incrementAndGet();
+        Path temp = directory.resolve(key + "." + UUID.randomUUID() + ".part");
+        try {
+            ImageFormat format;
+            long size;
+            try (Exchange exchange = send(URI.create(url))) {
+                ClassicHttpResponse response = exchange.response();
+                if (response.getCode() != 200) {
+                    throw new IOException("HTTP " + response.getCode());
+                }
+                HttpEntity entity = response.getEntity();
+                String contentType = entity == null || entity.getContentType() == null ? "" : entity.getContentType();
+                if (!contentType.toLowerCase(Locale.ROOT).startsWith("image/")) {
+                    throw new IOException("not an image: '" + contentType + "'");
+                }
+                if (entity.getContentLength() > maxFileSize) {
+                    throw new IOException("too large: " + entity.getContentLength() + " bytes");
+                }
+                InputStream body = entity.getContent(); // closed with the exchange
+                try (OutputStream out = Files.newOutputStream(temp)) {
+                    long deadline = System.nanoTime() + readTimeout.toNanos();
+                    byte[] header = body.readNBytes(ImageFormat.SIGNATURE_LENGTH);
+                    format = ImageFormat.sniff(header);
+                    if (format == null) {
+                        throw new IOException("unsupported image format");
+                    }
+                    out.write(header);
+                    size = header.length + copy(body, out, maxFileSize - header.length, deadline);
+                }
+            }
+
+            Path target = directory.resolve(key + "." + format.extension);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            CachedImage image = new CachedImage(key, target, format.mediaType, size, Instant.now());
+            put(image);
+            failedUntil.remove(key);
+            log.debug("Cached external image {} ({} bytes)", url, size);
+            return Optional.of(image);
+        } catch (IOException | IllegalArgumentException e) {
+            fetchFailed(key, url, e);
+            return Optional.empty();
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                log.debug("Cannot delete {}", temp, e);
+            }
+        }
+    }
+
+    /**
+     * GET following up to MAX_REDIRECTS redirects; every hop's host is vetted by VettingDnsResolver
+     */
+    private Exchange send(URI uri) throws IOException {
+        for (int hop = 0; ; hop++) {
+            checkScheme(uri);
+            HttpGet request = new HttpGet(uri);
+            request.addHeader(HttpHeaders.ACCEPT, "image/*");
+            Exchange exchange = new Exchange(request, httpClient.executeOpen(null, request, null));
+            if (!REDIRECT_STATUSES.contains(exchange.response().getCode())) {
+                return exchange;
+            }
+            Header location = exchange.response().getFirstHeader(HttpHeaders.LOCATION);
+            exchange.close();
+            if (location == null || hop >= MAX_REDIRECTS) {
+                throw new IOException("too many or invalid redirects");
+            }
+            uri = uri.resolve(location.getValue());
+        }
+    }
+
+    private static void checkScheme(URI uri) throws IOException {
+        String scheme = uri.getScheme() == null ? "" : uri.getScheme().toLowerCase(Locale.ROOT);
+        if (!scheme.equals("http") && !scheme.equals("https") || uri.getHost() == null) {
+            throw new IOException("unsupported URL: " + uri);
+        }
+    }
+
+    /**
+     * Copy at most limit bytes, failing when the stream has more or the deadline passes
+     * Each read is bounded by the socket timeout, so a stalled origin fails within read-timeout
+     */
+    private long copy(InputStream in, OutputStream out, long limit, long deadline) throws IOException {
+        byte[] buffer = new byte[8192];
+        long copied = 0;
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            copied += read;
+            if (copied > limit) {
+                throw new IOException("larger than " + maxFileSize + " bytes");
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IOException("download exceeded " + readTimeout);
+            }
+            out.write(buffer, 0, read);
+        }
+        return copied;
+    }
+
+    private void fetchFailed(String key, String url, Exception e) {
+        fetchFailures.incrementAndGet();
+        failedUntil.put(key, Instant.now().plus(failureTtl));
+        log.warn("Cannot fetch external image {}: {}", url, e.getMessage());
+    }
+
+    private CachedImage lookup(String key) {
+        CachedImage image;
+        synchronized (this) {
+            image = entries.get(key);
+        }
+        if (image != null && !Files.isRegularFile(image.file())) {
+            remove(image);
+            return null;
+        }
+        return image;
+    }
+
+    private boolean isExpired(CachedImage image) {
+        return image.fetchedAt().plus(ttl).isBefore(Instant.now());
+    }
+
+    private void put(CachedImage image) {
+        List<Path> obsolete = new ArrayList<>();
+        synchronized (this) {
+            CachedImage previous = entries.put(image.key(), image);
+            if (previous != null) {
+                totalBytes -= previous.size();
+                if (!previous.file().equals(image.file())) {
+                    obsolete.add(previous.file()); // origin changed format
+                }
+            }
+            totalBytes += image.size();
+            Iterator<CachedImage> eldest = entries.values().iterator();
+            while (totalBytes > maxCacheSize && eldest.hasNext()) {
+                CachedImage victim = eldest.next();
+                if (victim == image) {
+                    continue;
+                }
+                eldest.remove();
+                totalBytes -= victim.size();
+                obsolete.add(victim.file());
+                evictions.incrementAndGet();
+            }
+        }
+        obsolete.forEach(this::delete);
+    }
+
+    private void remove(CachedImage image) {
+        synchronized (this) {
+            if (!entries.remove(image.key(), image)) {
+                return;
+            }
+            totalBytes -= image.size();
+        }
+        delete(image.file());
+    }
+
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Cannot delete cached external image {}", file, e);
+        }
+    }
+
+    /**
+     * Index the images kept by a previous run, least recently fetched first, and drop leftovers
+     */
+    private void loadExisting() throws IOException {
+        List<CachedImage> existing = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                var matcher = FILE_NAME.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    Files.deleteIfExists(file); // interrupted downloads
+                    continue;
+                }
+                ImageFormat format = ImageFormat.ofExtension(matcher.group(2));
+                existing.add(new CachedImage(matcher.group(1), file, format.mediaType, Files.size(file),
+                        Files.getLastModifiedTime(file).toInstant()));
+            }
+        }
+        existing.sort(Comparator.comparing(CachedImage::fetchedAt));
+        existing.forEach(this::put);
+    }
+
+    private String sign(String url) {
+        return signer.sign(url).substring(0, SIGNATURE_LENGTH);
+    }
+
+    private static String key(String url) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(url.trim().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Resolves origin hosts for the HTTP client and refuses loopback, private and link-local
+     * addresses, so the addresses checked are exactly the ones connected to
+     */
+    private class VettingDnsResolver extends SystemDefaultDnsResolver {
+
+        @Override
+        public InetAddress[] resolve(String host) throws UnknownHostException {
+            InetAddress[] addresses = super.resolve(host);
+            if (allowPrivateHosts) {
+                return addresses;
+            }
+            for (InetAddress address : addresses) {
+                if (address.isLoopbackAddress() || address.isSiteLocalAddress() || address.isLinkLocalAddress()
+                        || address.isAnyLocalAddress() || address.isMulticastAddress()
+                        || address instanceof Inet6Address && (address.getAddress()[0] & 0xFE) == 0xFC) {
+                    throw new UnknownHostException("private address " + address.getHostAddress() + " not allowed");
+                }
+            }
+            return addresses;
+        }
+    }
+
+    /**
+     * A request and its response
+     * Closing aborts the connection unless the body was read to the end: a plain close would
+     * drain the rest of a slow or oversized body to reuse the connection
+     */
+    private record Exchange(HttpGet request, ClassicHttpResponse response) implements Closeable {
+
+        @Override
+        public void close() {
+            request.cancel(); // no-op once a fully read response has returned its connection to the pool
+            try {
+                response.close();
+            } catch (IOException e) {
+                log.trace("Aborted response closed with {}", e.toString());
+            }
+        }
+    }
+
+    /**
+     * A cached external image; key is the SHA-256 of its URL
+     */
+    public record CachedImage(String key, Path file, MediaType mediaType, long size, Instant fetchedAt) {
+
+        /**
+         * Strong entity tag, changing with every fetch
+         */
+        public String etag() {
+            return "\"" + key.substring(0, 16) + "-" + fetchedAt.toEpochMilli() + "\"";
+        }
+    }
+}
@@ -0,0 +1,490 @@
+package com.dive.club.image;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.ConvolveOp;
+import java.awt.image.Kernel;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resized JPEG derivatives and blurred placeholders of local images
+ * Sources are the bundled images under classpath:/static/images/ (URL /images/**) and uploads
+ * in the {@link ImageUploadStore} (URL /images/uploads/**). Derivatives are written once to
+ * an on-disk cache named after the SHA-256 of the source bytes, so they
+ * survive restarts and a changed source never serves a stale derivative. Encoding runs on a
+ * small bounded pool; when it is saturated or too slow, callers fall back to the original image.
+ * Widths are never upscaled: only configured widths below the source width are offered.
+ * Sources over app.image.max-pixels are served as they are, and sources are decoded subsampled
+ * to about twice the target width, so decoding memory follows the output rather than the source
+ */
+@Component
+@Slf4j
+public class ImageDerivativeService {
+
+    public static final String IMAGE_PREFIX = "/images/";
+    public static final String DERIVED_PREFIX = "/images/derived/";
+
+    private static final Set<String> SOURCE_EXTENSIONS = Set.of("jpg", "jpeg", "png");
+    private static final String BUNDLED_PATTERN = "classpath:/static/images/**/*.*";
+
+    private final ImageUploadStore uploads;
+    private final Path directory;
+    private final List<Integer> widths;
+    private final float quality;
+    private final long maxPixels;
+    private final int placeholderWidth;
+    private final Duration waitTimeout;
+    private final ThreadPoolExecutor workers;
+
+    private final Map<String, SourceImage> sources = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, String> placeholders = new ConcurrentHashMap<>();
+
+    public ImageDerivativeService(ImageUploadStore uploads,
+                                  @Value("${app.image.derivative-dir}") Path directory,
+                                  @Value("${app.image.widths:320,640,1280}") List<Integer> widths,
+                                  @Value("${app.image.quality:0.8}") float quality,
+                                  @Value("${app.image.max-pixels:40000000}") long maxPixels,
+                                  @Value("${app.image.placeholder-width:24}") int placeholderWidth,
+                                  @Value("${app.image.workers:2}") int workerCount,
+                                  @Value("${app.image.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.image.wait-timeout:5s}") Duration waitTimeout) {
+        this.uploads = uploads;
+        this.directory = directory.toAbsolutePath().normalize();
+        this.widths = widths.stream().sorted().distinct().toList();
+        this.quality = quality;
+        this.maxPixels = maxPixels;
+        this.placeholderWidth = placeholderWidth;
+        this.waitTimeout = waitTimeout;
+
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivative-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法建立圖片衍生檔目錄: " + this.directory, e);
+        }
+    }
+
+    /**
+     * Whether derivatives can be produced for this image URL (local JPEG/PNG only)
+     */
+    public boolean supports(String url) {
+        if (!StringUtils.hasText(url) || !url.startsWith(IMAGE_PREFIX) || url.startsWith(DERIVED_PREFIX)
+                || url.contains("..") || url.contains("?") || url.contains("#")) {
+            return false;
+        }
+        String extension = StringUtils.getFilenameExtension(url);
+        return extension != null && SOURCE_EXTENSIONS.contains(extension.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Configured widths available for an image (those below its own width), ascending
+     */
+    public List<Integer> widthsFor(String url) {
+        return source(url)
+                .map(image -> widths.stream().filter(w -> w < image.width()).toList())
+                .orElse(List.of());
+    }
+
+    /**
+     * URL of the derivative of an image at the given width
+     * Carries the source content hash (?v=), so the URL changes whenever the image does
+     */
+    public String derivedUrl(String url, int width) {
+        String derived = DERIVED_PREFIX + width + "/" + url.substring(IMAGE_PREFIX.length());
+        return source(url).map(image -> derived + "?v=" + image.hash()).orElse(derived);
+    }
+
+    /**
+     * Whether a ?v= value names the current content of the source image
+     */
+    public boolean isCurrentVersion(String url, String version) {
+        return version != null && source(url).map(image -> image.hash().equals(version)).orElse(false);
+    }
+
+    /**
+     * Original image URL of a derivative URL path (the part after /images/derived/{width}/)
+     */
+    public String sourceUrl(String relativePath) {
+        return IMAGE_PREFIX + relativePath;
+    }
+
+    /**
+     * Entity tag of a derivative, derived from the source content hash
+     */
+    public Optional<String> derivativeTag(String url, int width) {
+        return source(url).map(image -> image.hash() + "-" + width);
+    }
+
+    /**
+     * Derivative file of an image at one of its available widths
+     * Empty when the width is not offered for this image, or when encoding failed, timed out
+     * or was rejected by the saturated pool (callers then serve the original)
+     */
+    public Optional<Path> derivative(String url, int width) {
+        if (!widthsFor(url).contains(width)) {
+            return Optional.empty();
+        }
+        return source(url).flatMap(image -> await(image, width, false));
+    }
+
+    /**
+     * Tiny blurred JPEG of an image as a data URI, for use as a blur-up background
+     * Never waits (it is called while rendering pages): empty when the image is not a supported
+     * local image or its placeholder has not been generated yet, in which case it is queued
+     */
+    public Optional<String> placeholder(String url) {
+        Optional<SourceImage> image = source(url);
+        if (image.isEmpty()) {
+            return Optional.empty();
+        }
+        String cached = placeholders.get(image.get().hash());
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Path path = target(image.get(), placeholderWidth, true);
+        if (!Files.isReadable(path)) {
+            submit(image.get(), placeholderWidth, true);
+            return Optional.empty();
+        }
+        try {
+            String dataUri = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(Files.readAllBytes(path));
+            placeholders.put(image.get().hash(), dataUri);
+            return Optional.of(dataUri);
+        } catch (IOException e) {
+            log.warn("Failed to read image placeholder {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether the image should have a placeholder that is not generated yet
+     * Markup rendered meanwhile lacks it, so cached markup must not outlive this state
+     */
+    public boolean isPlaceholderPending(String url) {
+        return source(url)
+                .filter(image -> !placeholders.containsKey(image.hash())
+                        && !Files.isReadable(target(image, placeholderWidth, true)))
+                .isPresent();
+    }
+
+    public Map<String, Object> getStatistics() {
+        return Map.of(
+                "sources", sources.size(),
+                "workers", workers.getPoolSize(),
+                "active", workers.getActiveCount(),
+                "queued", workers.getQueue().size(),
+                "completed", workers.getCompletedTaskCount());
+    }
+
+    /**
+     * Pre-generates derivatives and placeholders of all bundled images in the background
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmBundledImages() {
+        int queued = 0;
+        try {
+            Resource root = new ClassPathResource("static/images/");
+            String rootUrl = root.getURL().toString();
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(BUNDLED_PATTERN)) {
+                String resourceUrl = resource.getURL().toString();
+                if (!resourceUrl.startsWith(rootUrl)) {
+                    continue;
+                }
+                queued += prepare(IMAGE_PREFIX + resourceUrl.substring(rootUrl.length()));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to list bundled images: {}", e.getMessage());
+        }
+        log.info("Queued {} image derivatives for bundled images (cache: {})", queued, directory);
+    }
+
+    /**
+     * Queues all derivatives and the placeholder of an image in the background
+     * @return number of derivatives queued
+     */
+    public int prepare(String url) {
+        Optional<SourceImage> image = source(url);
+        if (image.isEmpty()) {
+            return 0;
+        }
+        int queued = 0;
+        for (int width : widthsFor(url)) {
+            queued += submit(image.get(), width, false) != null ? 1 : 0;
+        }
+        queued += submit(image.get(), placeholderWidth, true) != null ? 1 : 0;
+        return queued;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private Optional<SourceImage> source(String url) {
+        if (!supports(url)) {
+            return Optional.empty();
+        }
+        SourceImage cached = sources.get(url);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<SourceImage> loaded = loadSource(url);
+        // only images that exist are remembered, which bounds the map by the images on disk and in
+        // the jar; misses come from arbitrary request paths (and uploads may appear later)
+        loaded.ifPresent(image -> sources.putIfAbsent(url, image));
+        return loaded;
+    }
+
+    private Optional<SourceImage> loadSource(String url) {
+        Resource resource = url.startsWith(ImageUploadStore.URL_PREFIX)
+                ? uploads.find(url.substring(ImageUploadStore.URL_PREFIX.length()))
+                        .<Resource>map(FileSystemResource::new)
+                        .orElse(null)
+                : new ClassPathResource("static" + url);
+        if (resource == null || !resource.isReadable()) {
+            return Optional.empty();
+        }
+        try (InputStream in = resource.getInputStream()) {
+            byte[] bytes = in.readAllBytes();
+            ImageSize size = ImageSize.read(new ByteArrayInputStream(bytes));
+            if (size == null || size.width() <= 0) {
+                log.warn("Unsupported image format, serving original only: {}", url);
+                return Optional.empty();
+            }
+            if (size.pixels() > maxPixels) {
+                log.warn("Image {} is {}x{}, over {} pixels; serving original only",
+                        url, size.width(), size.height(), maxPixels);
+                return Optional.empty();
+            }
+            return Optional.of(new SourceImage(url, sha256(bytes), size.width(), resource));
+        } catch (IOException e) {
+            log.warn("Failed to read image {}: {}", url, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<Path> await(SourceImage image, int width, boolean blur) {
+        Path target = target(image, width, blur);
+        if (Files.isReadable(target)) {
+            return Optional.of(target);
+        }
+        CompletableFuture<Path> future = submit(image, width, blur);
+        if (future == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(future.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        } catch (TimeoutException e) {
+            log.debug("Image derivative {} not ready within {}", target.getFileName(), waitTimeout);
+            return Optional.empty();
+        } catch (ExecutionException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Queues the encoding of one derivative, sharing the future with concurrent callers
+     * Returns null when the derivative cannot be queued (pool saturated)
+     */
+    private CompletableFuture<Path> submit(SourceImage image, int width, boolean blur) {
+        Path target = target(image, width, blur);
+        if (Files.isReadable(target)) {
+            return CompletableFuture.completedFuture(target);
+        }
+        String key = target.getFileName().toString();
+        CompletableFuture<Path> created = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            workers.execute(() -> {
+                try {
+                    created.complete(encode(image, width, blur, target));
+                } catch (Exception e) {
+                    log.warn("Failed to generate {} from {}: {}", key, image.url(), e.getMessage());
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+            return created;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            log.debug("Image derivative pool saturated, skipping {}", key);
+            return null;
+        }
+    }
+
+    private Path encode(SourceImage image, int width, boolean blur, Path target) throws IOException {
+        if (Files.isReadable(target)) {
+            return target;
+        }
+        BufferedImage scaled = resize(decode(image, width), width);
+        if (blur) {
+            scaled = blur(blur(scaled));
+        }
+
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try {
+            writeJpeg(scaled, temp, blur ? 0.5f : quality, !blur && width >= 640);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        log.debug("Generated {} ({} bytes) from {}", target.getFileName(), Files.size(target), image.url());
+        return target;
+    }
+
+    private Path target(SourceImage image, int width, boolean blur) {
+        return directory.resolve(image.hash() + (blur ? "-p" : "-w") + width + ".jpg");
+    }
+
+    /**
+     * Downscales in halving steps with bilinear interpolation, which keeps detail close to
+     * an area-averaging resize at a fraction of its cost; alpha is flattened onto white
+     */
+    private static BufferedImage resize(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1, Math.round((float) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage current = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = Math.max(targetWidth, w / 2);
+            h = w == targetWidth ? targetHeight : Math.max(targetHeight, h / 2);
+            BufferedImage step = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, w, h);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (w > targetWidth);
+        return current;
+    }
+
+    private static BufferedImage blur(BufferedImage source) {
+        float[] kernel = new float[9];
+        Arrays.fill(kernel, 1f / 9f);
+        return new ConvolveOp(new Kernel(3, 3, kernel), ConvolveOp.EDGE_NO_OP, null).filter(source, null);
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target, float quality, boolean progressive) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName("jpeg");
+        if (!writers.hasNext()) {
+            throw new IOException("no JPEG writer available");
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(quality);
+        if (progressive) {
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        }
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Decodes the source skipping rows and columns so it stays at least twice the target width
+     * (the halving resize then averages it down); never the full image when it is much larger
+     */
+    private static BufferedImage decode(SourceImage image, int targetWidth) throws IOException {
+        try (InputStream input = image.resource().getInputStream();
+             ImageInputStream in = ImageIO.createImageInputStream(input)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, image.width() / (2 * targetWidth));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record SourceImage(String url, String hash, int width, Resource resource) {
+    }
+}
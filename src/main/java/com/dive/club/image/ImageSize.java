@@ -0,0 +1,37 @@
+package com.dive.club.image;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Pixel dimensions of an image, read from its header without decoding the pixels
+ */
+record ImageSize(int width, int height) {
+
+    long pixels() {
+        return (long) width * height;
+    }
+
+    /**
+     * Dimensions of the first image in the stream, or null when no ImageIO reader knows the format
+     */
+    static ImageSize read(InputStream input) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(input)) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                return new ImageSize(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.dive.club.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed store for uploaded images
+ * Files are named by the SHA-256 of their bytes ({hash}.{ext}, sharded by the first two hex
+ * digits), so identical uploads are stored once and a stored file never changes. The multipart
+ * body is spooled to disk by the container (spring.servlet.multipart.*, located inside this
+ * store so the hand-over is a rename) and only ever streamed, never held in memory.
+ * The type is taken from the file signature, not from the client's Content-Type, and images
+ * over app.image.max-pixels are refused (a small file can declare huge dimensions)
+ */
+@Component
+@Slf4j
+public class ImageUploadStore {
+
+    public static final String URL_PREFIX = "/images/uploads/";
+
+    private static final Pattern FILE_NAME = Pattern.compile("[0-9a-f]{64}\\.(jpg|png|gif|webp)");
+
+    private final Path directory;
+    private final Path incoming;
+    private final long maxSize;
+    private final long maxPixels;
+
+    public ImageUploadStore(@Value("${app.image.upload-dir}") Path directory,
+                            @Value("${spring.servlet.multipart.max-file-size:5MB}") DataSize maxSize,
+                            @Value("${app.image.max-pixels:40000000}") long maxPixels) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.incoming = this.directory.resolve(".incoming");
+        this.maxSize = maxSize.toBytes();
+        this.maxPixels = maxPixels;
+        try {
+            Files.createDirectories(incoming);
+        } catch (IOException e) {
+            throw new UncheckedIOException("無法建立圖片上傳目錄: " + this.directory, e);
+        }
+    }
+
+    /**
+     * Stores an uploaded image, or finds the identical image already stored
+     */
+    public StoredImage store(MultipartFile file) throws IOException {
+        if (file.isEmpty()) {
+            throw new IllegalArgumentException("請選擇要上傳的圖片");
+        }
+        if (file.getSize() > maxSize) {
+            throw new IllegalArgumentException("圖片大小不可超過 " + DataSize.ofBytes(maxSize).toMegabytes() + " MB");
+        }
+
+        Path temp = incoming.resolve(UUID.randomUUID() + ".part");
+        try {
+            // File overload: Tomcat renames its spooled part instead of copying it
+            file.transferTo(temp.toFile());
+
+            MessageDigest digest = sha256();
+            ImageFormat type;
+            try (InputStream in = new DigestInputStream(Files.newInputStream(temp), digest)) {
+                type = ImageFormat.sniff(in.readNBytes(ImageFormat.SIGNATURE_LENGTH));
+                in.transferTo(OutputStream.nullOutputStream());
+            }
+            if (type == null) {
+                throw new IllegalArgumentException("僅支援 JPEG、PNG、GIF 或 WebP 圖片");
+            }
+            checkDimensions(temp);
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String name = hash + "." + type.extension;
+            Path target = resolve(name);
+            boolean duplicate = Files.exists(target);
+            if (!duplicate) {
+                Files.createDirectories(target.getParent());
+                // same name means same bytes, so a concurrent identical upload may safely win the race
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                log.info("Stored uploaded image {} ({} bytes)", name, file.getSize());
+            } else {
+                log.debug("Uploaded image {} already stored", name);
+            }
+            return new StoredImage(URL_PREFIX + name, hash, type.mediaType, file.getSize(), duplicate);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Stored file for a name as it appears in the image URL ({hash}.{ext})
+     */
+    public Optional<Path> find(String name) {
+        if (name == null || !FILE_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path file = resolve(name);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    /**
+     * Media type of a stored file name
+     */
+    public MediaType mediaType(String name) {
+        ImageFormat format = ImageFormat.ofExtension(name.substring(name.lastIndexOf('.') + 1));
+        return format != null ? format.mediaType : MediaType.APPLICATION_OCTET_STREAM;
+    }
+
+    /**
+     * Refuses images over the pixel cap; formats without an ImageIO reader (WebP) are never decoded here
+     */
+    private void checkDimensions(Path file) throws IOException {
+        ImageSize size;
+        try (InputStream in = Files.newInputStream(file)) {
+            size = ImageSize.read(in);
+        }
+        if (size != null && size.pixels() > maxPixels) {
+            throw new IllegalArgumentException("圖片尺寸過大 (" + size.width() + "×" + size.height()
+                    + ")，像素總數不可超過 " + maxPixels / 10_000 + " 萬");
+        }
+    }
+
+    private Path resolve(String name) {
+        return directory.resolve(name.substring(0, 2)).resolve(name);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A stored upload: its public URL, content hash and whether it was already present
+     */
+    public record StoredImage(String url, String hash, MediaType mediaType, long size, boolean duplicate) {
+    }
+}
@@ -1,75 +1,217 @@
 package com.dive.club.repository;
 
+import com.dive.club.dto.ActivityDeadline;
+import com.dive.club.dto.ActivityStamp;
 import com.dive.club.entity.Activity;
 import com.dive.club.entity.Manager;
 import com.dive.club.enums.ActivityStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Activity Repository with custom query methods
+ * List queries load the creator through the {@link Activity#WITH_CREATOR} entity graph
+ * so rendering creator name/email costs no extra query per row.
+ * Status-based queries are cached in the Hibernate query cache, which Hibernate
+ * invalidates whenever the activities table is written.
+ * Dynamic filters are built from {@link ActivitySpecifications}
  */
 @Repository
-public interface ActivityRepository extends JpaRepository<Activity, Long> {
+public interface ActivityRepository extends JpaRepository<Activity, Long>, JpaSpecificationExecutor<Activity> {
+
+    String EXPORT_FETCH_SIZE = "500";
 
     /**
      * Find all activities by status
      */
+    @EntityGraph(Activity.WITH_CREATOR)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Activity> findByStatus(ActivityStatus status);
 
     /**
-     * Find all published activities (visible to public)
+     * Load a single activity with its creator (detail, edit and audit pages)
+     */
+    @Override
+    @EntityGraph(Activity.WITH_CREATOR)
+    Optional<Activity> findById(Long id);
+
+    /**
+     * Version and update time of a single activity, without loading it
+     */
+    @Query("SELECT new com.dive.club.dto.ActivityStamp(a.version, a.updatedAt) FROM Activity a WHERE a.activityId = :id")
+    Optional<ActivityStamp> findStampById(@Param("id") Long id);
+
+    /**
+     * Load activities by id (used to hydrate search index hits)
+     */
+    @Override
+    @EntityGraph(Activity.WITH_CREATOR)
+    List<Activity> findAllById(Iterable<Long> ids);
+
+    /**
+     * Page of activities matching a dynamic specification (audit queue)
+     * The count query runs without the entity graph
      */
-    @Query("SELECT a FROM Activity a WHERE a.status = 'PUBLISHED' ORDER BY a.startTime DESC")
-    List<Activity> findAllPublished();
+    @Override
+    @EntityGraph(Activity.WITH_CREATOR)
+    Page<Activity> findAll(Specification<Activity> spec, Pageable pageable);
 
     /**
      * Find activities by category and status
      */
+    @EntityGraph(Activity.WITH_CREATOR)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Activity> findByCategoryAndStatus(String category, ActivityStatus status);
 
     /**
      * Find activities created by a specific manager
      */
+    @EntityGraph(Activity.WITH_CREATOR)
     List<Activity> findByCreator(Manager creator);
 
     /**
      * Find activities created by a specific manager with specific status
      */
+    @EntityGraph(Activity.WITH_CREATOR)
     List<Activity> findByCreatorAndStatus(Manager creator, ActivityStatus status);
 
     /**
      * Find all activities pending review
      */
+    @EntityGraph(Activity.WITH_CREATOR)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT a FROM Activity a WHERE a.status = 'PENDING_REVIEW' ORDER BY a.createdAt ASC")
     List<Activity> findAllPendingReview();
 
     /**
-     * Find published activities that have ended (for cron job)
+     * Ids of the next chunk of published activities that have ended (bulk transition)
+     */
+    @Query("SELECT a.activityId FROM Activity a WHERE a.status = 'PUBLISHED' AND a.endTime < :currentTime " +
+            "ORDER BY a.endTime ASC")
+    List<Long> findPublishedIdsPastEndTime(@Param("currentTime") LocalDateTime currentTime, Pageable pageable);
+
+    /**
+     * Those of the given activities that are published and have ended (exact-time transition)
+     */
+    @Query("SELECT a.activityId FROM Activity a WHERE a.activityId IN :ids AND a.status = 'PUBLISHED' " +
+            "AND a.endTime < :currentTime")
+    List<Long> findPublishedIdsPastEndTime(@Param("ids") Collection<Long> ids,
+                                           @Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * End times of all published activities (end timer rebuild)
+     */
+    @Query("SELECT new com.dive.club.dto.ActivityDeadline(a.activityId, a.endTime) FROM Activity a " +
+            "WHERE a.status = 'PUBLISHED'")
+    List<ActivityDeadline> findPublishedDeadlines();
+
+    /**
+     * Set-based PUBLISHED -> ENDED transition for the given ids
+     * Re-checks status and end time so rows changed concurrently are skipped
+     * Bumps the version so in-flight conditional writes against the old state fail
+     */
+    @Modifying
+    @Query("UPDATE Activity a SET a.status = 'ENDED', a.updatedAt = :currentTime, a.version = a.version + 1 " +
+            "WHERE a.activityId IN :ids AND a.status = 'PUBLISHED' AND a.endTime < :currentTime")
+    int markEndedByIds(@Param("ids") List<Long> ids, @Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * Those of the given ids that markEndedByIds transitioned at currentTime
+     * Read in the same transaction as the UPDATE, so it sees exactly the rows it changed
+     */
+    @Query("SELECT a.activityId FROM Activity a WHERE a.activityId IN :ids AND a.status = 'ENDED' " +
+            "AND a.updatedAt = :currentTime ORDER BY a.activityId")
+    List<Long> findEndedIdsAt(@Param("ids") List<Long> ids, @Param("currentTime") LocalDateTime currentTime);
+
+    /**
+     * Forward-only cursor over activities with id > afterId in id order, for exports
+     * Rows are fetched in JDBC batches of EXPORT_FETCH_SIZE, marked read-only and kept
+     * out of the second-level cache. Must be consumed inside a transaction and closed
+     */
+    @EntityGraph(Activity.WITH_CREATOR)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("SELECT a FROM Activity a WHERE a.activityId > :afterId " +
+            "AND (:status IS NULL OR a.status = :status) ORDER BY a.activityId")
+    Stream<Activity> streamForExport(@Param("afterId") Long afterId,
+                                     @Param("status") ActivityStatus status,
+                                     Limit limit);
+
+    /**
+     * Ids of activities due for archival: ENDED before the cutoff, or CANCELLED and untouched since
+     */
+    @Query("SELECT a.activityId FROM Activity a " +
+            "WHERE (a.status = 'ENDED' AND a.endTime < :cutoff) " +
+            "OR (a.status = 'CANCELLED' AND a.updatedAt < :cutoff) " +
+            "ORDER BY a.activityId")
+    List<Long> findArchivableIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    /**
+     * Ids of DRAFTING activities nobody has touched since the cutoff
      */
-    @Query("SELECT a FROM Activity a WHERE a.status = 'PUBLISHED' AND a.endTime < :currentTime")
-    List<Activity> findPublishedActivitiesPastEndTime(@Param("currentTime") LocalDateTime currentTime);
+    @Query("SELECT a.activityId FROM Activity a WHERE a.status = 'DRAFTING' AND a.updatedAt < :cutoff " +
+            "ORDER BY a.activityId")
+    List<Long> findAbandonedDraftIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
 
     /**
-     * Search activities by keyword in title or description
+     * Delete the given drafts, re-checking status and age so drafts edited meanwhile survive
      */
-    @Query("SELECT a FROM Activity a WHERE a.status = 'PUBLISHED' AND " +
-            "(LOWER(a.title) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-            "LOWER(a.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
-    List<Activity> searchPublishedActivities(@Param("keyword") String keyword);
+    @Modifying
+    @Query("DELETE FROM Activity a WHERE a.activityId IN :ids AND a.status = 'DRAFTING' AND a.updatedAt < :cutoff")
+    int deleteAbandonedDrafts(@Param("ids") List<Long> ids, @Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Those of the given ids still present in the activities table
+     */
+    @Query("SELECT a.activityId FROM Activity a WHERE a.activityId IN :ids")
+    List<Long> findExistingIds(@Param("ids") List<Long> ids);
 
     /**
      * Count activities by status
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     long countByStatus(ActivityStatus status);
 
+    /**
+     * Number of activities per status in a single aggregate query
+     * Each row is [ActivityStatus status, Long count]; statuses without rows are absent
+     */
+    @Query("SELECT a.status, COUNT(a) FROM Activity a GROUP BY a.status")
+    List<Object[]> countGroupedByStatus();
+
+    /**
+     * Most recently created activities with the given status, newest first
+     * Served by the (status, created_at) index; the limit comes from the Pageable
+     */
+    @EntityGraph(Activity.WITH_CREATOR)
+    @Query("SELECT a FROM Activity a WHERE a.status = :status ORDER BY a.createdAt DESC, a.activityId DESC")
+    List<Activity> findRecentByStatus(@Param("status") ActivityStatus status, Pageable pageable);
+
     /**
      * Find activities by multiple statuses
      */
+    @EntityGraph(Activity.WITH_CREATOR)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Activity> findByStatusIn(List<ActivityStatus> statuses);
 }
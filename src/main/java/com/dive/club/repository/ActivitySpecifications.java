@@ -0,0 +1,119 @@
+package com.dive.club.repository;
+
+import com.dive.club.entity.Activity;
+import com.dive.club.entity.Manager;
+import com.dive.club.enums.ActivityStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * Criteria building blocks for dynamic activity queries
+ * Combine with {@link Specification#where} / {@code and}; a null spec means "no restriction"
+ */
+public final class ActivitySpecifications {
+
+    private static final char LIKE_ESCAPE = '\\';
+
+    private ActivitySpecifications() {
+    }
+
+    public static Specification<Activity> hasStatus(ActivityStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Activity> categoryEqualsIgnoreCase(String category) {
+        if (category == null || category.trim().isEmpty()) {
+            return null;
+        }
+        String value = category.trim().toLowerCase(Locale.ROOT);
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("category")), value);
+    }
+
+    public static Specification<Activity> idIn(Collection<Long> ids) {
+        if (ids == null) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("activityId").in(ids);
+    }
+
+    public static Specification<Activity> categoryEquals(String category) {
+        if (category == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Activity> startsAtOrAfter(LocalDateTime from) {
+        if (from == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("startTime"), from);
+    }
+
+    public static Specification<Activity> startsBefore(LocalDateTime before) {
+        if (before == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThan(root.get("startTime"), before);
+    }
+
+    public static Specification<Activity> costAtLeast(BigDecimal min) {
+        if (min == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("cost"), min);
+    }
+
+    public static Specification<Activity> costAtMost(BigDecimal max) {
+        if (max == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("cost"), max);
+    }
+
+    /**
+     * Keyset seek past (startTime, activityId) in (startTime DESC, activityId DESC) order
+     */
+    public static Specification<Activity> before(LocalDateTime startTime, Long activityId) {
+        if (startTime == null || activityId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("startTime"), startTime),
+                cb.and(cb.equal(root.get("startTime"), startTime),
+                        cb.lessThan(root.get("activityId"), activityId)));
+    }
+
+    /**
+     * Case-insensitive substring match on the title or the creator's name
+     */
+    public static Specification<Activity> titleOrCreatorNameContains(String keyword) {
+        if (keyword == null || keyword.trim().isEmpty()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(keyword.trim().toLowerCase(Locale.ROOT)) + "%";
+        return (root, query, cb) -> {
+            Join<Activity, Manager> creator = root.join("creator", JoinType.INNER);
+            return cb.or(
+                    containsPattern(cb, root.get("title"), pattern),
+                    containsPattern(cb, creator.get("name"), pattern));
+        };
+    }
+
+    private static Predicate containsPattern(CriteriaBuilder cb, Expression<String> field, String pattern) {
+        return cb.like(cb.lower(field), pattern, LIKE_ESCAPE);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,31 @@
+package com.dive.club.repository;
+
+import com.dive.club.dto.ActivityStamp;
+import com.dive.club.entity.ArchivedActivity;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Archived Activity Repository (read side of the cold activities_archive table)
+ */
+@Repository
+public interface ArchivedActivityRepository extends JpaRepository<ArchivedActivity, Long> {
+
+    /**
+     * Load an archived activity with its creator
+     */
+    @Override
+    @EntityGraph(attributePaths = "creator")
+    Optional<ArchivedActivity> findById(Long id);
+
+    /**
+     * Version and update time of an archived activity, without loading it
+     */
+    @Query("SELECT new com.dive.club.dto.ActivityStamp(a.version, a.updatedAt) FROM ArchivedActivity a WHERE a.activityId = :id")
+    Optional<ActivityStamp> findStampById(@Param("id") Long id);
+}
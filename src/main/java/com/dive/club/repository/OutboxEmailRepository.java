@@ -0,0 +1,71 @@
+package com.dive.club.repository;
+
+import com.dive.club.entity.OutboxEmail;
+import com.dive.club.enums.OutboxStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Email Outbox Repository
+ * State changes are conditional updates so several dispatchers (nodes) never send the same row twice
+ */
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    /**
+     * Ids of rows due for delivery: PENDING rows whose backoff elapsed and SENDING rows whose lease expired
+     */
+    @Query("SELECT e.id FROM OutboxEmail e WHERE e.status IN ('PENDING', 'SENDING') AND e.nextAttemptAt <= :now " +
+            "ORDER BY e.nextAttemptAt ASC")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Claim a due row for one attempt; returns 0 when another dispatcher claimed it first
+     * The lease (nextAttemptAt) lets a crashed dispatcher's rows be picked up again
+     */
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = 'SENDING', e.attempts = e.attempts + 1, e.nextAttemptAt = :leaseUntil " +
+            "WHERE e.id = :id AND e.status IN ('PENDING', 'SENDING') AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = 'SENT', e.sentAt = :sentAt, e.lastError = NULL " +
+            "WHERE e.id = :id AND e.status = 'SENDING'")
+    int markSent(@Param("id") Long id, @Param("sentAt") LocalDateTime sentAt);
+
+    /**
+     * Record a failed attempt: back to PENDING until nextAttemptAt, or DEAD
+     */
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = :status, e.nextAttemptAt = :nextAttemptAt, e.lastError = :error " +
+            "WHERE e.id = :id AND e.status = 'SENDING'")
+    int markFailed(@Param("id") Long id, @Param("status") OutboxStatus status,
+                   @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    /**
+     * Put a dead letter back in the queue with a fresh set of attempts
+     */
+    @Modifying
+    @Query("UPDATE OutboxEmail e SET e.status = 'PENDING', e.attempts = 0, e.nextAttemptAt = :now " +
+            "WHERE e.id = :id AND e.status = 'DEAD'")
+    int requeueDead(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEmail e WHERE e.status = 'SENT' AND e.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Row count per status
+     */
+    @Query("SELECT e.status, COUNT(e) FROM OutboxEmail e GROUP BY e.status")
+    List<Object[]> countByStatus();
+
+    List<OutboxEmail> findByStatusOrderByNextAttemptAtDesc(OutboxStatus status, Limit limit);
+}
@@ -0,0 +1,22 @@
+package com.dive.club.repository;
+
+import com.dive.club.entity.SubmissionDigestEntry;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Submission Digest Entry Repository
+ */
+@Repository
+public interface SubmissionDigestEntryRepository extends JpaRepository<SubmissionDigestEntry, Long> {
+
+    /**
+     * All waiting entries, locked so two nodes running the digest cannot both send them
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<SubmissionDigestEntry> findAllByOrderBySubmittedAtAsc();
+}
@@ -1,9 +1,15 @@
 package com.dive.club.repository;
 
 import com.dive.club.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -14,11 +20,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     /**
      * Find user by email (used for authentication)
+     * Cached in the query cache; the user itself comes from the entity cache
+     * Read-write so a standalone lookup never goes to a lagging replica
      */
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<User> findByEmail(String email);
 
     /**
      * Check if email already exists
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Addresses of enabled SuperManagers (recipients of submission notifications)
+     */
+    @Query("SELECT s.email FROM SuperManager s WHERE s.enabled = true ORDER BY s.id")
+    List<String> findEnabledSuperManagerEmails();
 }
@@ -0,0 +1,240 @@
+package com.dive.club.scheduler;
+
+import com.dive.club.dto.ActivityDeadline;
+import com.dive.club.entity.Activity;
+import com.dive.club.enums.ActivityStatus;
+import com.dive.club.event.ActivityBatchChangedEvent;
+import com.dive.club.event.ActivityChangedEvent;
+import com.dive.club.event.ActivityChangedEvent.ChangeType;
+import com.dive.club.repository.ActivityRepository;
+import com.dive.club.service.ActivityService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ends published activities at their end time
+ * Keeps a delay queue with one deadline per PUBLISHED activity, keyed by endTime. It is built
+ * from the database at startup and kept current from activity events after commit (publish,
+ * edit, cancel, delete, bulk ENDED/archive). A single thread waits for the earliest deadline
+ * and ends everything due with one conditional UPDATE. The periodic sweep in
+ * ActivityStatusScheduler remains as a safety net and rebuilds the queue, which also picks up
+ * activities published on other nodes
+ */
+@Component
+@Slf4j
+public class ActivityEndTimer {
+
+    private final ActivityService activityService;
+    private final ActivityRepository activityRepository;
+    private final TransactionTemplate primaryRead;
+    private final int batchSize;
+    private final Duration retryDelay;
+
+    private final DelayQueue<Deadline> queue = new DelayQueue<>();
+    private final Map<Long, Instant> deadlines = new ConcurrentHashMap<>(); // current deadline per activity
+    private final Object rebuildLock = new Object();
+    private Set<Long> changedDuringRebuild; // ids touched by events while a rebuild reads, guarded by this
+    private final Thread thread;
+
+    public ActivityEndTimer(ActivityService activityService,
+                            ActivityRepository activityRepository,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.activity.end-batch-size:500}") int batchSize,
+                            @Value("${app.activity.end-retry-delay:30s}") Duration retryDelay) {
+        this.activityService = activityService;
+        this.activityRepository = activityRepository;
+        // read-write on purpose: routes to the primary so a just-committed change is visible
+        this.primaryRead = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retryDelay = retryDelay;
+        this.thread = new Thread(this::run, "activity-end-timer");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Load the deadlines of all published activities and start firing; overdue ones end at once
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuild();
+        thread.start();
+    }
+
+    /**
+     * Replace the queue content with the published activities in the database
+     * Events that arrive while the database is read are newer than the read, so the
+     * activities they touch keep whatever the events set
+     */
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashSet<>();
+            }
+            List<ActivityDeadline> published;
+            try {
+                published = primaryRead.execute(status -> activityRepository.findPublishedDeadlines());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                Set<Long> ids = new HashSet<>();
+                for (ActivityDeadline deadline : published) {
+                    ids.add(deadline.getActivityId());
+                    if (!changedDuringRebuild.contains(deadline.getActivityId())) {
+                        put(deadline.getActivityId(), deadline.getEndTime());
+                    }
+                }
+                deadlines.keySet().stream()
+                        .filter(id -> !ids.contains(id) && !changedDuringRebuild.contains(id))
+                        .toList()
+                        .forEach(this::remove);
+                changedDuringRebuild = null;
+            }
+            log.info("Activity end timer holds {} deadline(s)", deadlines.size());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        Activity activity = event.getActivity();
+        if (event.getType() != ChangeType.DELETED && activity != null
+                && activity.getStatus() == ActivityStatus.PUBLISHED && activity.getEndTime() != null) {
+            schedule(event.getActivityId(), activity.getEndTime());
+        } else {
+            cancel(event.getActivityId());
+        }
+    }
+
+    /**
+     * Set-based transitions (ENDED, ARCHIVED, purge) only ever take activities out of PUBLISHED
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivitiesChanged(ActivityBatchChangedEvent event) {
+        if (event.getType() == ChangeType.CREATED) {
+            return; // bulk imports create drafts
+        }
+        event.getActivityIds().forEach(this::cancel);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thread.interrupt();
+    }
+
+    private synchronized void schedule(Long activityId, LocalDateTime endTime) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(activityId);
+        }
+        put(activityId, endTime);
+    }
+
+    private synchronized void cancel(Long activityId) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(activityId);
+        }
+        remove(activityId);
+    }
+
+    private void put(Long activityId, LocalDateTime endTime) {
+        Instant at = endTime.atZone(ZoneId.systemDefault()).toInstant();
+        Instant previous = deadlines.put(activityId, at);
+        if (at.equals(previous)) {
+            return;
+        }
+        if (previous != null) {
+            queue.remove(new Deadline(activityId, previous));
+        }
+        queue.put(new Deadline(activityId, at));
+    }
+
+    private void remove(Long activityId) {
+        Instant previous = deadlines.remove(activityId);
+        if (previous != null) {
+            queue.remove(new Deadline(activityId, previous));
+        }
+    }
+
+    /**
+     * Take the deadline if it is still the activity's current one
+     */
+    private synchronized boolean claim(Deadline deadline) {
+        return deadlines.remove(deadline.activityId(), deadline.at());
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Deadline> due = new ArrayList<>();
+            try {
+                Deadline first = queue.take();
+                if (claim(first)) {
+                    due.add(first);
+                }
+                Deadline next;
+                while (due.size() < batchSize && (next = queue.poll()) != null) {
+                    if (claim(next)) {
+                        due.add(next);
+                    }
+                }
+                if (!due.isEmpty()) {
+                    fire(due);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Cannot end {} activities; retrying in {}", due.size(), retryDelay, e);
+                LocalDateTime retryAt = LocalDateTime.now().plus(retryDelay);
+                due.forEach(deadline -> schedule(deadline.activityId(), retryAt));
+            }
+        }
+    }
+
+    private void fire(List<Deadline> due) {
+        List<Long> ids = due.stream().map(Deadline::activityId).toList();
+        List<Long> endedIds = activityService.endActivities(ids);
+        long lateness = Duration.between(due.get(0).at(), Instant.now()).toMillis(); // the first is the most overdue
+        if (!endedIds.isEmpty()) {
+            log.info("Ended {} activities at their end time ({} ms late): {}", endedIds.size(), lateness, endedIds);
+        }
+    }
+
+    /**
+     * An activity's end time in the delay queue
+     */
+    private record Deadline(Long activityId, Instant at) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), at));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return at.compareTo(((Deadline) other).at);
+        }
+    }
+}
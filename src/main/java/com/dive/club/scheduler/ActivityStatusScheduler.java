@@ -1,5 +1,7 @@
 package com.dive.club.scheduler;
 
+import com.dive.club.dto.BulkTransitionResult;
+import com.dive.club.service.ActivityArchiveService;
 import com.dive.club.service.ActivityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -8,8 +10,8 @@ import org.springframework.stereotype.Component;
 
 /**
  * Scheduled Task for Activity Status Management
- * Automatically marks published activities as ENDED when their end time has
- * passed
+ * Published activities are ended at their end time by {@link ActivityEndTimer}; the sweep here
+ * is the safety net behind it. Also archives long-finished activities
  */
 @Component
 @RequiredArgsConstructor
@@ -17,30 +19,45 @@ import org.springframework.stereotype.Component;
 public class ActivityStatusScheduler {
 
     private final ActivityService activityService;
+    private final ActivityArchiveService activityArchiveService;
+    private final ActivityEndTimer activityEndTimer;
 
     /**
-     * Run every hour to check and mark ended activities
-     * Cron expression: "0 0 * * * *" = every hour at the top of the hour
+     * Reconciliation sweep: end anything the timer missed and rebuild its queue from the database
+     * Default cron: every six hours (override with app.activity.end-cron)
      */
-    @Scheduled(cron = "0 0 * * * *")
+    @Scheduled(cron = "${app.activity.end-cron:0 0 */6 * * *}")
     public void markEndedActivities() {
         log.info("Running scheduled task: Mark ended activities");
 
         try {
-            activityService.markEndedActivities();
-            log.info("Scheduled task completed: Mark ended activities");
+            BulkTransitionResult result = activityService.markEndedActivities();
+            if (result.getTotal() > 0) {
+                log.warn("Reconciliation ended {} activities the end timer missed", result.getTotal());
+            }
+            activityEndTimer.rebuild();
+            log.info("Scheduled task completed: Mark ended activities ({} ended, chunks: {})",
+                    result.getTotal(), result.getChunkCounts());
         } catch (Exception e) {
             log.error("Error in scheduled task: Mark ended activities", e);
         }
     }
 
     /**
-     * Alternative: Run every 30 minutes
-     * Uncomment to use instead of hourly
+     * Run nightly to move old ENDED/CANCELLED activities into the archive table
+     * and purge abandoned drafts (override with app.archive.cron)
      */
-    // @Scheduled(fixedRate = 1800000) // 30 minutes in milliseconds
-    // public void markEndedActivitiesFrequent() {
-    // log.info("Running scheduled task (30 min): Mark ended activities");
-    // activityService.markEndedActivities();
-    // }
+    @Scheduled(cron = "${app.archive.cron:0 30 3 * * *}")
+    public void archiveInactiveActivities() {
+        log.info("Running scheduled task: Archive inactive activities");
+
+        try {
+            BulkTransitionResult archived = activityArchiveService.archiveInactiveActivities();
+            BulkTransitionResult purged = activityArchiveService.purgeAbandonedDrafts();
+            log.info("Scheduled task completed: Archive inactive activities ({} archived, {} drafts purged)",
+                    archived.getTotal(), purged.getTotal());
+        } catch (Exception e) {
+            log.error("Error in scheduled task: Archive inactive activities", e);
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package com.dive.club.scheduler;
+
+import com.dive.club.service.EmailService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Scheduled Task for the SuperManager submission digest
+ * Always scheduled: with the digest disabled there is nothing to collect, apart from
+ * submissions recorded before it was switched off, which are still delivered
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AdminDigestScheduler {
+
+    private final EmailService emailService;
+
+    /**
+     * Summarise submissions since the last run (override with app.mail.admin-digest.cron)
+     */
+    @Scheduled(cron = "${app.mail.admin-digest.cron:0 */30 * * * *}")
+    public void sendAdminDigest() {
+        try {
+            int queued = emailService.queueAdminDigest();
+            if (queued > 0) {
+                log.info("Scheduled task completed: Admin digest ({} email(s) queued)", queued);
+            }
+        } catch (Exception e) {
+            log.error("Error in scheduled task: Admin digest", e);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.dive.club.search;
+
+import com.dive.club.entity.Activity;
+import com.dive.club.enums.ActivityStatus;
+import com.dive.club.event.ActivityBatchChangedEvent;
+import com.dive.club.event.ActivityChangedEvent;
+import com.dive.club.repository.ActivityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over published activities.
+ * Indexes title, location, description and qualifications with field weights,
+ * is rebuilt at startup and updated incrementally from {@link ActivityChangedEvent}s.
+ */
+@Component
+@Slf4j
+public class ActivitySearchIndex {
+
+    private static final int TITLE_WEIGHT = 4;
+    private static final int LOCATION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int QUALIFICATIONS_WEIGHT = 1;
+
+    private final ActivityRepository activityRepository;
+    private final TransactionTemplate primaryRead;
+
+    // term -> (activityId -> weighted term frequency)
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // activityId -> (term -> weighted term frequency), used to remove a document
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    private Set<Long> changedDuringRebuild; // ids touched by events while a rebuild reads, guarded by lock
+
+    public ActivitySearchIndex(ActivityRepository activityRepository, PlatformTransactionManager transactionManager) {
+        this.activityRepository = activityRepository;
+        // read-write on purpose: routes to the primary so a just-committed change is visible
+        this.primaryRead = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Build the index from all published activities once the application has started
+     * Events that arrive while the database is read are newer than the read, so the
+     * activities they touch keep whatever the events set
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            lock.writeLock().lock();
+            try {
+                changedDuringRebuild = new HashSet<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            List<Activity> published;
+            try {
+                published = primaryRead.execute(status -> activityRepository.findByStatus(ActivityStatus.PUBLISHED));
+            } catch (RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    changedDuringRebuild = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+            int size;
+            lock.writeLock().lock();
+            try {
+                documents.keySet().stream()
+                        .filter(id -> !changedDuringRebuild.contains(id))
+                        .toList()
+                        .forEach(this::removeDocument);
+                published.stream()
+                        .filter(activity -> !changedDuringRebuild.contains(activity.getActivityId()))
+                        .forEach(this::addDocument);
+                changedDuringRebuild = null;
+                size = documents.size();
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Search index built with {} published activities", size);
+        }
+    }
+
+    /**
+     * Keep the index in sync with the activity state machine
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        Activity activity = event.getActivity();
+        if (event.getType() != ActivityChangedEvent.ChangeType.DELETED
+                && activity.getStatus() == ActivityStatus.PUBLISHED) {
+            index(activity);
+        } else {
+            remove(event.getActivityId());
+        }
+    }
+
+    /**
+     * Drop activities changed by a set-based transition (they are no longer published)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivitiesChanged(ActivityBatchChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.getActivityIds().forEach(this::changed);
+            event.getActivityIds().forEach(this::removeDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add or replace a published activity in the index
+     */
+    public void index(Activity activity) {
+        lock.writeLock().lock();
+        try {
+            changed(activity.getActivityId());
+            removeDocument(activity.getActivityId());
+            addDocument(activity);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an activity from the index
+     */
+    public void remove(Long activityId) {
+        lock.writeLock().lock();
+        try {
+            changed(activityId);
+            removeDocument(activityId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find published activity ids matching every query term, most relevant first.
+     * Latin terms match by prefix so partial words typed into a search box still hit.
+     */
+    public List<Long> search(String query) {
+        Set<String> terms = new LinkedHashSet<>(SearchTokenizer.tokenizeForQuery(query));
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String term : terms) {
+                Map<Long, Double> termScores = scoreTerm(term);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                    }
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<Map.Entry<Long, Double>> ranked = new ArrayList<>(scores.entrySet());
+            ranked.sort(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder())
+                    .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder())));
+            return ranked.stream().map(Map.Entry::getKey).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of indexed activities
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String term) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<String, Map<Long, Integer>> matching = SearchTokenizer.isCjkToken(term)
+                ? exactMatch(term)
+                : postings.subMap(term, true, term + Character.MAX_VALUE, false);
+
+        int totalDocs = Math.max(documents.size(), 1);
+        for (Map<Long, Integer> docs : matching.values()) {
+            double idf = Math.log(1.0 + (double) totalDocs / docs.size());
+            for (Map.Entry<Long, Integer> doc : docs.entrySet()) {
+                scores.merge(doc.getKey(), doc.getValue() * idf, Double::sum);
+            }
+        }
+        return scores;
+    }
+
+    private Map<String, Map<Long, Integer>> exactMatch(String term) {
+        Map<Long, Integer> docs = postings.get(term);
+        return docs == null ? Map.of() : Map.of(term, docs);
+    }
+
+    /**
+     * Remember an event-driven change so a running rebuild does not overwrite it; caller holds the write lock
+     */
+    private void changed(Long activityId) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(activityId);
+        }
+    }
+
+    private void addDocument(Activity activity) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        addField(termFrequencies, activity.getTitle(), TITLE_WEIGHT);
+        addField(termFrequencies, activity.getLocation(), LOCATION_WEIGHT);
+        addField(termFrequencies, activity.getDescription(), DESCRIPTION_WEIGHT);
+        addField(termFrequencies, activity.getQualifications(), QUALIFICATIONS_WEIGHT);
+
+        Long id = activity.getActivityId();
+        documents.put(id, termFrequencies);
+        termFrequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+    }
+
+    private void removeDocument(Long activityId) {
+        Map<String, Integer> termFrequencies = documents.remove(activityId);
+        if (termFrequencies == null) {
+            return;
+        }
+        for (String term : termFrequencies.keySet()) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(activityId);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addField(Map<String, Integer> termFrequencies, String text, int weight) {
+        for (String token : SearchTokenizer.tokenizeForIndex(text)) {
+            termFrequencies.merge(token, weight, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.dive.club.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tokenizer for mixed Chinese / Latin text.
+ * Latin letters and digits are split into lower-cased words; runs of CJK
+ * characters are split into overlapping bigrams (plus unigrams when indexing)
+ * so that e.g. "水肺潛水" matches "水肺", "肺潛" and "潛水".
+ */
+public final class SearchTokenizer {
+
+    private SearchTokenizer() {
+    }
+
+    /**
+     * Tokens for indexing: Latin words, CJK unigrams and CJK bigrams
+     */
+    public static List<String> tokenizeForIndex(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * Tokens for querying: Latin words and CJK bigrams (unigram for a lone CJK character)
+     */
+    public static List<String> tokenizeForQuery(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * Whether a token came from a CJK run (CJK tokens match exactly, Latin tokens by prefix)
+     */
+    public static boolean isCjkToken(String token) {
+        return !token.isEmpty() && isCjk(token.codePointAt(0));
+    }
+
+    private static List<String> tokenize(String text, boolean indexing) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder latin = new StringBuilder();
+        List<String> cjkRun = new ArrayList<>();
+
+        int i = 0;
+        while (i < text.length()) {
+            int cp = text.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (isCjk(cp)) {
+                flushLatin(latin, tokens);
+                cjkRun.add(new String(Character.toChars(cp)));
+            } else if (Character.isLetterOrDigit(cp)) {
+                flushCjk(cjkRun, tokens, indexing);
+                latin.appendCodePoint(Character.toLowerCase(cp));
+            } else {
+                flushLatin(latin, tokens);
+                flushCjk(cjkRun, tokens, indexing);
+            }
+        }
+        flushLatin(latin, tokens);
+        flushCjk(cjkRun, tokens, indexing);
+        return tokens;
+    }
+
+    private static void flushLatin(StringBuilder latin, List<String> tokens) {
+        if (latin.length() > 0) {
+            tokens.add(latin.toString().toLowerCase(Locale.ROOT));
+            latin.setLength(0);
+        }
+    }
+
+    private static void flushCjk(List<String> run, List<String> tokens, boolean indexing) {
+        if (run.isEmpty()) {
+            return;
+        }
+        if (indexing || run.size() == 1) {
+            tokens.addAll(run);
+        }
+        for (int j = 0; j + 1 < run.size(); j++) {
+            tokens.add(run.get(j) + run.get(j + 1));
+        }
+        run.clear();
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -0,0 +1,38 @@
+package com.dive.club.security;
+
+import com.dive.club.entity.Manager;
+import com.dive.club.entity.SuperManager;
+import com.dive.club.entity.User;
+import com.dive.club.enums.UserRole;
+
+/**
+ * Claims carried by a signed API access token
+ * Enough to rebuild the request principal without loading the user
+ *
+ * @param sub   user id
+ * @param iat   issued-at, epoch seconds
+ * @param exp   expiry, epoch seconds
+ */
+public record ApiTokenClaims(Long sub, String email, String name, UserRole role, long iat, long exp) {
+
+    public static ApiTokenClaims of(User user, long issuedAt, long expiresAt) {
+        return new ApiTokenClaims(user.getId(), user.getEmail(), user.getName(), user.getRole(), issuedAt, expiresAt);
+    }
+
+    /**
+     * Detached principal of the matching type, so {@code @AuthenticationPrincipal Manager} keeps working
+     * Only id, name, email and role are populated
+     */
+    public User toPrincipal() {
+        User user = switch (role) {
+            case ROLE_ADMIN -> new SuperManager();
+            case ROLE_MANAGER -> new Manager();
+            default -> new User();
+        };
+        user.setId(sub);
+        user.setEmail(email);
+        user.setName(name);
+        user.setRole(role);
+        return user;
+    }
+}
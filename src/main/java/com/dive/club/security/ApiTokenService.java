@@ -0,0 +1,135 @@
+package com.dive.club.security;
+
+import com.dive.club.entity.User;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Issues and verifies stateless HMAC-SHA256 access tokens for the REST API
+ * Token format: {@code <keyId>.<base64url claims JSON>.<base64url signature>}. Verification
+ * needs only the configured keys, so any node can accept a token issued by any other.
+ * Keys are rotated by adding the new key everywhere, switching the active key, and
+ * removing the old one once tokens signed with it have expired
+ */
+@Component
+@Slf4j
+public class ApiTokenService {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, HmacSigner> keys;
+    private final String activeKeyId;
+    private final Duration ttl;
+
+    public ApiTokenService(ObjectMapper objectMapper,
+                           @Value("${app.security.api-token.keys:}") String keys,
+                           @Value("${app.security.api-token.active-key:}") String activeKeyId,
+                           @Value("${app.security.api-token.ttl:15m}") Duration ttl,
+                           @Value("${app.security.allow-ephemeral-keys:false}") boolean allowEphemeralKeys) {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.keys = parseKeys(keys);
+        if (this.keys.isEmpty()) {
+            this.keys.put("ephemeral", HmacSigner.ephemeral("app.security.api-token.keys", "Tokens", allowEphemeralKeys));
+        }
+        if (activeKeyId == null || activeKeyId.isBlank()) {
+            if (this.keys.size() > 1) {
+                throw new IllegalStateException("app.security.api-token.active-key is required when several keys are configured");
+            }
+            activeKeyId = this.keys.keySet().iterator().next();
+        }
+        if (!this.keys.containsKey(activeKeyId.trim())) {
+            throw new IllegalStateException("Active API token key '" + activeKeyId + "' is not configured");
+        }
+        this.activeKeyId = activeKeyId.trim();
+        log.info("API tokens signed with key '{}' ({} key(s) accepted, ttl {})", this.activeKeyId, this.keys.size(), ttl);
+    }
+
+    /**
+     * Issue a token for the given user, signed with the active key
+     */
+    public IssuedToken issue(User user) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        ApiTokenClaims claims = ApiTokenClaims.of(user, now.getEpochSecond(), expiresAt.getEpochSecond());
+        try {
+            String payload = ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            String signed = activeKeyId + "." + payload;
+            return new IssuedToken(signed + "." + keys.get(activeKeyId).sign(signed), expiresAt);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize token claims", e);
+        }
+    }
+
+    /**
+     * Verify signature and expiry and return the claims
+     * @throws BadCredentialsException when the token is malformed, signed with an unknown key or tampered with
+     * @throws CredentialsExpiredException when the token has expired
+     */
+    public ApiTokenClaims verify(String token) {
+        String[] parts = token.split("\\.", -1);
+        if (parts.length != 3) {
+            throw new BadCredentialsException("無效的存取權杖");
+        }
+        HmacSigner key = keys.get(parts[0]);
+        if (key == null) {
+            throw new BadCredentialsException("存取權杖的簽章金鑰已停用");
+        }
+        if (!HmacSigner.matches(key.sign(parts[0] + "." + parts[1]), parts[2])) {
+            throw new BadCredentialsException("無效的存取權杖");
+        }
+
+        ApiTokenClaims claims;
+        try {
+            claims = objectMapper.readValue(DECODER.decode(parts[1]), ApiTokenClaims.class);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new BadCredentialsException("無效的存取權杖");
+        }
+        if (claims.sub() == null || claims.role() == null) {
+            throw new BadCredentialsException("無效的存取權杖");
+        }
+        if (Instant.now().getEpochSecond() >= claims.exp()) {
+            throw new CredentialsExpiredException("存取權杖已過期");
+        }
+        return claims;
+    }
+
+    /**
+     * Parse "keyId:base64Secret,keyId2:base64Secret2"
+     */
+    private static Map<String, HmacSigner> parseKeys(String value) {
+        Map<String, HmacSigner> parsed = new LinkedHashMap<>();
+        if (value == null || value.isBlank()) {
+            return parsed;
+        }
+        for (String entry : value.split(",")) {
+            int separator = entry.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalStateException("API token keys must be given as keyId:base64Secret");
+            }
+            String keyId = entry.substring(0, separator).trim();
+            if (keyId.contains(".")) {
+                throw new IllegalStateException("API token key id must not contain '.': " + keyId);
+            }
+            parsed.put(keyId, HmacSigner.fromBase64("API token key '" + keyId + "'", entry.substring(separator + 1)));
+        }
+        return parsed;
+    }
+
+    public record IssuedToken(String token, Instant expiresAt) {
+    }
+}
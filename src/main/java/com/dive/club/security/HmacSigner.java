@@ -0,0 +1,94 @@
+package com.dive.club.security;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * HMAC-SHA256 signer over a secret key
+ * Secrets are configured base64 encoded and must be at least MIN_KEY_BYTES long. Without one,
+ * startup fails unless app.security.allow-ephemeral-keys permits a random per-process key
+ * (development only): signatures made with it are not accepted after a restart or by other nodes
+ */
+@Slf4j
+public final class HmacSigner {
+
+    public static final int MIN_KEY_BYTES = 32;
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecretKeySpec key;
+
+    private HmacSigner(byte[] secret) {
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    /**
+     * Signer for a configured base64 secret; name identifies the setting in error messages
+     */
+    public static HmacSigner fromBase64(String name, String secret) {
+        byte[] decoded;
+        try {
+            decoded = Base64.getDecoder().decode(secret.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(name + " must be base64 encoded", e);
+        }
+        if (decoded.length < MIN_KEY_BYTES) {
+            throw new IllegalStateException(name + " must be at least " + MIN_KEY_BYTES + " bytes");
+        }
+        return new HmacSigner(decoded);
+    }
+
+    /**
+     * Signer with a random key, used when the named setting is missing
+     * @param signed what the key signs, for the warning (e.g. "Tokens")
+     * @param allowed app.security.allow-ephemeral-keys
+     * @throws IllegalStateException when random keys are not allowed
+     */
+    public static HmacSigner ephemeral(String name, String signed, boolean allowed) {
+        if (!allowed) {
+            throw new IllegalStateException(name + " is not set. Configure a base64 secret of at least "
+                    + MIN_KEY_BYTES + " bytes (random keys need app.security.allow-ephemeral-keys=true, development only)");
+        }
+        byte[] secret = new byte[MIN_KEY_BYTES];
+        new SecureRandom().nextBytes(secret);
+        log.warn("{} is not set; using a random key. {} will not survive a restart or be accepted by other nodes",
+                name, signed);
+        return new HmacSigner(secret);
+    }
+
+    /**
+     * Base64url signature (without padding) of the UTF-8 content
+     */
+    public String sign(String content) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return ENCODER.encodeToString(mac.doFinal(content.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC signing failed", e);
+        }
+    }
+
+    /**
+     * Short public identifier of the key, changing whenever the key does (not usable to sign)
+     */
+    public String keyId() {
+        return sign("key-id").substring(0, 8);
+    }
+
+    /**
+     * Constant-time comparison of an expected signature with a presented one
+     */
+    public static boolean matches(String expected, String presented) {
+        return presented != null && MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII),
+                presented.getBytes(StandardCharsets.US_ASCII));
+    }
+}
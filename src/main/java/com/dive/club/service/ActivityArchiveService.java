@@ -0,0 +1,176 @@
+package com.dive.club.service;
+
+import com.dive.club.dto.BulkTransitionResult;
+import com.dive.club.entity.Activity;
+import com.dive.club.entity.ArchivedActivity;
+import com.dive.club.event.ActivityBatchChangedEvent;
+import com.dive.club.event.ActivityChangedEvent.ChangeType;
+import com.dive.club.repository.ActivityRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.query.NativeQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Activity Archival Service
+ * Moves long-finished activities from the hot activities table into activities_archive
+ * and purges abandoned drafts. Both work in chunks, each chunk in its own transaction
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityArchiveService {
+
+    private static final String COLUMNS = "activity_id, title, description, category, start_time, end_time, "
+            + "location, max_participants, cost, qualifications, image_url, status, rejection_reason, "
+            + "creator_id, created_at, updated_at, version";
+
+    private final ActivityRepository activityRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.archive.after-days:180}")
+    private int archiveAfterDays;
+
+    @Value("${app.archive.draft-retention-days:365}")
+    private int draftRetentionDays;
+
+    @Value("${app.archive.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Archive ENDED/CANCELLED activities older than app.archive.after-days
+     */
+    public BulkTransitionResult archiveInactiveActivities() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(archiveAfterDays);
+        BulkTransitionResult result = runInChunks(ids -> archiveChunk(ids, cutoff, now),
+                () -> activityRepository.findArchivableIds(cutoff, PageRequest.of(0, batchSize)));
+        if (result.getTotal() > 0) {
+            log.info("Archived {} activities in {} chunk(s)", result.getTotal(), result.getChunkCounts().size());
+        }
+        return result;
+    }
+
+    /**
+     * Delete DRAFTING activities untouched for app.archive.draft-retention-days
+     */
+    public BulkTransitionResult purgeAbandonedDrafts() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(draftRetentionDays);
+        BulkTransitionResult result = runInChunks(ids -> purgeChunk(ids, cutoff),
+                () -> activityRepository.findAbandonedDraftIds(cutoff, PageRequest.of(0, batchSize)));
+        if (result.getTotal() > 0) {
+            log.info("Purged {} abandoned drafts in {} chunk(s)", result.getTotal(), result.getChunkCounts().size());
+        }
+        return result;
+    }
+
+    /**
+     * Repeat select-ids + process in separate transactions until a short chunk comes back
+     */
+    private BulkTransitionResult runInChunks(ToIntFunction<List<Long>> process, Supplier<List<Long>> candidates) {
+        BulkTransitionResult result = new BulkTransitionResult();
+        while (true) {
+            int[] found = {0};
+            Integer processed = transactionTemplate.execute(status -> {
+                List<Long> ids = candidates.get();
+                found[0] = ids.size();
+                return ids.isEmpty() ? 0 : process.applyAsInt(ids);
+            });
+            if (found[0] == 0) {
+                break;
+            }
+            result.addChunk(processed);
+            // stop on a short chunk, or when nothing moved (rows changed concurrently) to avoid spinning
+            if (found[0] < batchSize || processed == 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copy one chunk into the archive and remove it from the hot table
+     * Status and age are re-checked in SQL so rows changed since selection stay where they are;
+     * only the rows that actually moved are deleted and announced
+     */
+    private int archiveChunk(List<Long> ids, LocalDateTime cutoff, LocalDateTime now) {
+        int copied = nativeUpdate("INSERT INTO activities_archive (" + COLUMNS + ", archived_at) "
+                + "SELECT " + COLUMNS + ", :archivedAt FROM activities WHERE activity_id IN (:ids) "
+                + "AND ((status = 'ENDED' AND end_time < :cutoff) OR (status = 'CANCELLED' AND updated_at < :cutoff))")
+                .setParameter("archivedAt", now)
+                .setParameter("ids", ids)
+                .setParameter("cutoff", cutoff)
+                .executeUpdate();
+        if (copied == 0) {
+            log.warn("Expected to archive {} activities but none qualified any more", ids.size());
+            return 0;
+        }
+        List<Long> archivedIds = archivedIds(ids);
+        int deleted = nativeUpdate("DELETE FROM activities WHERE activity_id IN (:ids)")
+                .setParameter("ids", archivedIds)
+                .executeUpdate();
+        if (copied != archivedIds.size() || copied != deleted) {
+            throw new IllegalStateException("Archive copied " + copied + " rows but found "
+                    + archivedIds.size() + " and deleted " + deleted);
+        }
+        if (copied != ids.size()) {
+            log.warn("Expected to archive {} activities but moved {}; some changed concurrently", ids.size(), copied);
+        }
+        eventPublisher.publishEvent(new ActivityBatchChangedEvent(archivedIds, ChangeType.ARCHIVED));
+        return copied;
+    }
+
+    /**
+     * Those of the given ids present in the archive; the archive is keyed by activity_id and rows
+     * leave the hot table in the transaction that copies them, so these are the rows just copied
+     */
+    private List<Long> archivedIds(List<Long> ids) {
+        List<?> rows = entityManager.createNativeQuery(
+                        "SELECT activity_id FROM activities_archive WHERE activity_id IN (:ids) ORDER BY activity_id")
+                .setParameter("ids", ids)
+                .getResultList();
+        return rows.stream().map(row -> ((Number) row).longValue()).toList();
+    }
+
+    /**
+     * Delete one chunk of drafts and announce only those actually deleted
+     */
+    private int purgeChunk(List<Long> ids, LocalDateTime cutoff) {
+        int deleted = activityRepository.deleteAbandonedDrafts(ids, cutoff);
+        if (deleted == 0) {
+            return 0;
+        }
+        Set<Long> survivors = new HashSet<>(activityRepository.findExistingIds(ids));
+        List<Long> deletedIds = ids.stream().filter(id -> !survivors.contains(id)).toList();
+        if (deletedIds.size() != deleted) {
+            log.warn("Deleted {} drafts but {} of {} are gone; some changed concurrently",
+                    deleted, deletedIds.size(), ids.size());
+        }
+        eventPublisher.publishEvent(new ActivityBatchChangedEvent(deletedIds, ChangeType.DELETED));
+        return deleted;
+    }
+
+    /**
+     * Native statement that only invalidates the activity cache regions, not the whole L2 cache
+     */
+    private NativeQuery<?> nativeUpdate(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Activity.class)
+                .addSynchronizedEntityClass(ArchivedActivity.class);
+    }
+}
@@ -0,0 +1,166 @@
+package com.dive.club.service;
+
+import com.dive.club.dto.ActivityResponseDTO;
+import com.dive.club.entity.Activity;
+import com.dive.club.enums.ActivityStatus;
+import com.dive.club.repository.ActivityRepository;
+import com.dive.club.util.CsvRowWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Bulk Activity Export Service
+ * Streams activities from a forward-only cursor straight to the output as CSV or NDJSON.
+ * The table is walked in id order in chunks, each read in its own short read-only
+ * transaction, so memory stays constant and no transaction lives for the whole export
+ */
+@Service
+@Slf4j
+public class ActivityExportService {
+
+    /**
+     * CSV columns: the import columns (so exports can be re-imported) followed by read-only fields
+     */
+    public static final List<String> CSV_COLUMNS;
+
+    static {
+        List<String> columns = new ArrayList<>();
+        columns.add("activityId");
+        columns.addAll(ActivityImportService.CSV_COLUMNS);
+        columns.addAll(List.of("status", "rejectionReason", "creatorName", "creatorEmail",
+                "createdAt", "updatedAt", "version"));
+        CSV_COLUMNS = List.copyOf(columns);
+    }
+
+    private final ActivityRepository activityRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ActivityExportService(ActivityRepository activityRepository,
+                                 EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.activity.export-chunk-size:5000}") int chunkSize) {
+        this.activityRepository = activityRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Write activities (optionally of one status) as CSV with a header row
+     * @return number of activities written
+     */
+    public long exportCsv(OutputStream output, ActivityStatus status) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        CsvRowWriter csv = new CsvRowWriter(writer);
+        csv.writeRow(CSV_COLUMNS);
+        long count = export(status, activity -> csv.writeRow(toCsvRow(activity)));
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Write activities (optionally of one status) as NDJSON, one ActivityResponseDTO per line
+     * @return number of activities written
+     */
+    public long exportNdjson(OutputStream output, ActivityStatus status) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long count = export(status, activity -> {
+            writer.write(objectMapper.writeValueAsString(ActivityResponseDTO.fromEntity(activity)));
+            writer.write('\n');
+        });
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Walk the matching activities chunk by chunk, keyed on the last exported id
+     */
+    private long export(ActivityStatus status, RowWriter rowWriter) throws IOException {
+        long total = 0;
+        long afterId = 0;
+        try {
+            while (true) {
+                long[] cursor = {afterId, 0};
+                readOnlyTransaction.executeWithoutResult(tx -> {
+                    try (Stream<Activity> rows = activityRepository
+                            .streamForExport(cursor[0], status, Limit.of(chunkSize))) {
+                        rows.forEach(activity -> {
+                            try {
+                                rowWriter.write(activity);
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            cursor[0] = activity.getActivityId();
+                            cursor[1]++;
+                            entityManager.detach(activity);
+                        });
+                    }
+                });
+                total += cursor[1];
+                if (cursor[1] < chunkSize) {
+                    break;
+                }
+                afterId = cursor[0];
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Exported {} activities (status={})", total, status);
+        return total;
+    }
+
+    private static List<String> toCsvRow(Activity activity) {
+        return List.of(
+                str(activity.getActivityId()),
+                str(activity.getTitle()),
+                str(activity.getDescription()),
+                str(activity.getCategory()),
+                str(activity.getStartTime()),
+                str(activity.getEndTime()),
+                str(activity.getLocation()),
+                str(activity.getMaxParticipants()),
+                activity.getCost() != null ? activity.getCost().toPlainString() : "",
+                str(activity.getQualifications()),
+                str(activity.getImageUrl()),
+                str(activity.getStatus()),
+                str(activity.getRejectionReason()),
+                str(activity.getCreator().getName()),
+                str(activity.getCreator().getEmail()),
+                str(activity.getCreatedAt()),
+                str(activity.getUpdatedAt()),
+                str(activity.getVersion()));
+    }
+
+    private static String str(Object value) {
+        return Objects.toString(value, "");
+    }
+
+    @FunctionalInterface
+    private interface RowWriter {
+        void write(Activity activity) throws IOException;
+    }
+}
@@ -0,0 +1,249 @@
+package com.dive.club.service;
+
+import com.dive.club.dto.ActivityCreateDTO;
+import com.dive.club.dto.ActivityImportResultDTO;
+import com.dive.club.entity.Activity;
+import com.dive.club.entity.Manager;
+import com.dive.club.enums.ActivityStatus;
+import com.dive.club.event.ActivityBatchChangedEvent;
+import com.dive.club.event.ActivityChangedEvent.ChangeType;
+import com.dive.club.util.CsvRowReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk Activity Import Service
+ * Streams CSV or NDJSON input, validates each row against the ActivityCreateDTO rules
+ * and inserts valid rows as DRAFTING activities in JDBC-batched transactions
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityImportService {
+
+    public static final int MAX_BATCH_SIZE = 5000;
+
+    /**
+     * Expected CSV header columns (order may vary, unknown columns are ignored)
+     */
+    public static final List<String> CSV_COLUMNS = List.of(
+            "title", "description", "category", "startTime", "endTime",
+            "location", "maxParticipants", "cost", "qualifications", "imageUrl");
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int defaultBatchSize;
+
+    /**
+     * Import activities from a CSV stream with a header row
+     */
+    public ActivityImportResultDTO importCsv(InputStream input, Manager creator, Integer batchSize) throws IOException {
+        ImportBatch batch = new ImportBatch(creator, resolveBatchSize(batchSize));
+        CsvRowReader reader = new CsvRowReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+
+        List<String> header = reader.readRow();
+        if (header == null) {
+            return batch.finish();
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().replace("\uFEFF", ""), i);
+        }
+        if (!columns.containsKey("title")) {
+            throw new IllegalArgumentException("CSV 標題列缺少必要欄位，應包含: " + String.join(",", CSV_COLUMNS));
+        }
+
+        List<String> row;
+        while ((row = readRow(reader, batch)) != null) {
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue; // skip empty lines
+            }
+            long rowNumber = batch.nextRow();
+            try {
+                batch.accept(rowNumber, fromCsv(row, columns));
+            } catch (RuntimeException e) {
+                batch.reject(rowNumber, List.of("無法解析欄位: " + e.getMessage()));
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Next CSV row; a malformed row ends the import as a 400, after the rows before it are written
+     * (earlier batches are committed already, so the outcome does not depend on batchSize)
+     */
+    private static List<String> readRow(CsvRowReader reader, ImportBatch batch) throws IOException {
+        try {
+            return reader.readRow();
+        } catch (IllegalArgumentException e) {
+            ActivityImportResultDTO result = batch.finish();
+            throw new IllegalArgumentException(e.getMessage() + "，之前的 " + result.getImported() + " 筆已匯入", e);
+        }
+    }
+
+    /**
+     * Import activities from a newline-delimited JSON stream (one ActivityCreateDTO per line)
+     */
+    public ActivityImportResultDTO importNdjson(InputStream input, Manager creator, Integer batchSize) throws IOException {
+        ImportBatch batch = new ImportBatch(creator, resolveBatchSize(batchSize));
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long rowNumber = batch.nextRow();
+            try {
+                batch.accept(rowNumber, objectMapper.readValue(line, ActivityCreateDTO.class));
+            } catch (JsonProcessingException e) {
+                batch.reject(rowNumber, List.of("無法解析 JSON: " + e.getOriginalMessage()));
+            }
+        }
+        return batch.finish();
+    }
+
+    private int resolveBatchSize(Integer requested) {
+        int size = requested != null ? requested : defaultBatchSize;
+        return Math.max(1, Math.min(size, MAX_BATCH_SIZE));
+    }
+
+    private ActivityCreateDTO fromCsv(List<String> row, Map<String, Integer> columns) {
+        ActivityCreateDTO dto = new ActivityCreateDTO();
+        dto.setTitle(column(row, columns, "title"));
+        dto.setDescription(column(row, columns, "description"));
+        dto.setCategory(column(row, columns, "category"));
+        String startTime = column(row, columns, "startTime");
+        dto.setStartTime(startTime != null ? LocalDateTime.parse(startTime) : null);
+        String endTime = column(row, columns, "endTime");
+        dto.setEndTime(endTime != null ? LocalDateTime.parse(endTime) : null);
+        dto.setLocation(column(row, columns, "location"));
+        String maxParticipants = column(row, columns, "maxParticipants");
+        dto.setMaxParticipants(maxParticipants != null ? Integer.valueOf(maxParticipants) : null);
+        String cost = column(row, columns, "cost");
+        dto.setCost(cost != null ? new BigDecimal(cost) : null);
+        dto.setQualifications(column(row, columns, "qualifications"));
+        dto.setImageUrl(column(row, columns, "imageUrl"));
+        return dto;
+    }
+
+    private static String column(List<String> row, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= row.size()) {
+            return null;
+        }
+        String value = row.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Activity toEntity(ActivityCreateDTO dto) {
+        Activity activity = new Activity();
+        activity.setTitle(dto.getTitle());
+        activity.setDescription(dto.getDescription());
+        activity.setCategory(dto.getCategory());
+        activity.setStartTime(dto.getStartTime());
+        activity.setEndTime(dto.getEndTime());
+        activity.setLocation(dto.getLocation());
+        activity.setMaxParticipants(dto.getMaxParticipants());
+        activity.setCost(dto.getCost());
+        activity.setQualifications(dto.getQualifications());
+        activity.setImageUrl(dto.getImageUrl());
+        activity.setStatus(ActivityStatus.DRAFTING);
+        return activity;
+    }
+
+    /**
+     * Accumulates validated rows and writes them in fixed-size transactions
+     */
+    private class ImportBatch {
+
+        private final Long creatorId;
+        private final int batchSize;
+        private final List<Activity> pending;
+        private final ActivityImportResultDTO result = new ActivityImportResultDTO();
+
+        ImportBatch(Manager creator, int batchSize) {
+            this.creatorId = creator.getId();
+            this.batchSize = batchSize;
+            this.pending = new ArrayList<>(batchSize);
+        }
+
+        long nextRow() {
+            result.setTotalRows(result.getTotalRows() + 1);
+            return result.getTotalRows();
+        }
+
+        void accept(long rowNumber, ActivityCreateDTO dto) {
+            Set<ConstraintViolation<ActivityCreateDTO>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                reject(rowNumber, violations.stream().map(ConstraintViolation::getMessage).sorted().toList());
+                return;
+            }
+            pending.add(toEntity(dto));
+            if (pending.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void reject(long rowNumber, List<String> messages) {
+            result.addError(rowNumber, messages);
+        }
+
+        ActivityImportResultDTO finish() {
+            flush();
+            log.info("Bulk import finished: {} rows, {} imported, {} failed",
+                    result.getTotalRows(), result.getImported(), result.getFailed());
+            return result;
+        }
+
+        private void flush() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<Long> ids = transactionTemplate.execute(status -> {
+                Manager creator = entityManager.getReference(Manager.class, creatorId);
+                List<Long> insertedIds = new ArrayList<>(pending.size());
+                for (Activity activity : pending) {
+                    activity.setCreator(creator);
+                    entityManager.persist(activity);
+                    insertedIds.add(activity.getActivityId());
+                }
+                entityManager.flush();
+                entityManager.clear();
+                eventPublisher.publishEvent(new ActivityBatchChangedEvent(insertedIds, ChangeType.CREATED));
+                return insertedIds;
+            });
+            result.setImported(result.getImported() + ids.size());
+            log.debug("Imported batch of {} activities", ids.size());
+            pending.clear();
+        }
+    }
+}
@@ -1,20 +1,55 @@
 package com.dive.club.service;
 
+import com.dive.club.catalog.CatalogSnapshot;
+import com.dive.club.catalog.PublishedCatalog;
+import com.dive.club.dto.ActivityCatalogFilter;
 import com.dive.club.dto.ActivityCreateDTO;
+import com.dive.club.dto.ActivityResponseDTO;
+import com.dive.club.dto.ActivityStamp;
 import com.dive.club.dto.ActivityUpdateDTO;
 import com.dive.club.dto.AuditDecisionDTO;
+import com.dive.club.dto.AuditQueueFilter;
+import com.dive.club.dto.BulkTransitionResult;
+import com.dive.club.dto.CatalogCursor;
+import com.dive.club.dto.CursorPage;
 import com.dive.club.entity.Activity;
+import com.dive.club.entity.ArchivedActivity;
 import com.dive.club.entity.Manager;
 import com.dive.club.enums.ActivityStatus;
+import com.dive.club.event.ActivityBatchChangedEvent;
+import com.dive.club.event.ActivityChangedEvent;
+import com.dive.club.event.ActivityChangedEvent.ChangeType;
 import com.dive.club.exception.ActivityNotFoundException;
+import com.dive.club.exception.ActivityVersionConflictException;
 import com.dive.club.exception.UnauthorizedException;
 import com.dive.club.repository.ActivityRepository;
+import com.dive.club.repository.ActivitySpecifications;
+import com.dive.club.repository.ArchivedActivityRepository;
+import com.dive.club.search.ActivitySearchIndex;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Activity Service - Business Logic Layer
@@ -26,8 +61,24 @@ import java.util.List;
 @Transactional
 public class ActivityService {
 
+    public static final int DEFAULT_PAGE_SIZE = 12;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Most relevant keyword hits bound into the catalog query before the snapshot is built
+    public static final int MAX_KEYWORD_HITS = 1000;
+
+    private static final Sort CATALOG_ORDER = Sort.by(Sort.Direction.DESC, "startTime", "activityId");
+
     private final ActivityRepository activityRepository;
+    private final ArchivedActivityRepository archivedActivityRepository;
     private final EmailService emailService;
+    private final ActivitySearchIndex searchIndex;
+    private final PublishedCatalog publishedCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.activity.end-batch-size:500}")
+    private int endBatchSize;
 
     /**
      * Create a new activity (UC-A05)
@@ -51,6 +102,7 @@ public class ActivityService {
         activity.setCreator(creator);
 
         Activity savedActivity = activityRepository.save(activity);
+        eventPublisher.publishEvent(ActivityChangedEvent.of(savedActivity, ChangeType.CREATED));
         log.info("Activity created with ID: {}", savedActivity.getActivityId());
 
         return savedActivity;
@@ -61,9 +113,17 @@ public class ActivityService {
      * Transition: DRAFTING/NEEDS_REVISION -> PENDING_REVIEW
      */
     public Activity submitForReview(Long activityId, Manager manager) {
+        return submitForReview(activityId, manager, null);
+    }
+
+    /**
+     * Submit activity for review if it is still at the expected version
+     */
+    public Activity submitForReview(Long activityId, Manager manager, Long expectedVersion) {
         log.info("Submitting activity {} for review", activityId);
 
         Activity activity = getActivityById(activityId);
+        checkVersion(activity, expectedVersion);
 
         // Verify ownership
         if (!activity.getCreator().getId().equals(manager.getId())) {
@@ -72,8 +132,9 @@ public class ActivityService {
 
         activity.submitForReview();
         Activity savedActivity = activityRepository.save(activity);
+        eventPublisher.publishEvent(ActivityChangedEvent.of(savedActivity, ChangeType.SUBMITTED));
 
-        // Send notifications
+        // Queue notifications; they are delivered after commit by EmailOutboxDispatcher
         emailService.sendSubmissionNotification(savedActivity);
         emailService.notifyAdminNewSubmission(savedActivity);
 
@@ -87,9 +148,17 @@ public class ActivityService {
      * Reject: PENDING_REVIEW -> NEEDS_REVISION
      */
     public Activity auditActivity(Long activityId, AuditDecisionDTO decision) {
+        return auditActivity(activityId, decision, null);
+    }
+
+    /**
+     * Audit activity if it is still at the expected version
+     */
+    public Activity auditActivity(Long activityId, AuditDecisionDTO decision, Long expectedVersion) {
         log.info("Auditing activity {} with decision {}", activityId, decision.getAction());
 
         Activity activity = getActivityById(activityId);
+        checkVersion(activity, expectedVersion);
 
         if (!decision.isValid()) {
             throw new IllegalArgumentException("退回活動時必須提供原因");
@@ -98,11 +167,13 @@ public class ActivityService {
         if (decision.getAction() == AuditDecisionDTO.AuditAction.APPROVE) {
             activity.approve();
             activityRepository.save(activity);
+            eventPublisher.publishEvent(ActivityChangedEvent.of(activity, ChangeType.APPROVED));
             emailService.sendApprovalNotification(activity);
             log.info("Activity {} approved", activityId);
         } else {
             activity.reject(decision.getReason());
             activityRepository.save(activity);
+            eventPublisher.publishEvent(ActivityChangedEvent.of(activity, ChangeType.REJECTED));
             emailService.sendRejectionNotification(activity, decision.getReason());
             log.info("Activity {} rejected with reason: {}", activityId, decision.getReason());
         }
@@ -117,9 +188,17 @@ public class ActivityService {
      * PENDING_REVIEW
      */
     public Activity updateActivity(Long activityId, ActivityUpdateDTO dto, Manager manager) {
+        return updateActivity(activityId, dto, manager, null);
+    }
+
+    /**
+     * Update activity if it is still at the expected version
+     */
+    public Activity updateActivity(Long activityId, ActivityUpdateDTO dto, Manager manager, Long expectedVersion) {
         log.info("Updating activity {} by manager {}", activityId, manager.getEmail());
 
         Activity activity = getActivityById(activityId);
+        checkVersion(activity, expectedVersion);
 
         // Verify ownership
         if (!activity.getCreator().getId().equals(manager.getId())) {
@@ -156,6 +235,7 @@ public class ActivityService {
         }
 
         Activity savedActivity = activityRepository.save(activity);
+        eventPublisher.publishEvent(ActivityChangedEvent.of(savedActivity, ChangeType.UPDATED));
         log.info("Activity {} updated", activityId);
 
         return savedActivity;
@@ -182,6 +262,7 @@ public class ActivityService {
         }
 
         activityRepository.delete(activity);
+        eventPublisher.publishEvent(ActivityChangedEvent.of(activity, ChangeType.DELETED));
         log.info("Activity {} deleted", activityId);
     }
 
@@ -200,6 +281,7 @@ public class ActivityService {
 
         activity.cancel();
         Activity savedActivity = activityRepository.save(activity);
+        eventPublisher.publishEvent(ActivityChangedEvent.of(savedActivity, ChangeType.CANCELLED));
         log.info("Activity {} cancelled", activityId);
 
         return savedActivity;
@@ -214,10 +296,94 @@ public class ActivityService {
     }
 
     /**
-     * Get all published activities (visible to public)
+     * Get activity by ID for read-only views, falling back to the archive
+     * Archived activities come back as detached copies and must not be modified
+     */
+    public Activity getActivityIncludingArchived(Long activityId) {
+        return activityRepository.findById(activityId)
+                .or(() -> archivedActivityRepository.findById(activityId).map(ArchivedActivity::toActivity))
+                .orElseThrow(() -> new ActivityNotFoundException("找不到活動 ID: " + activityId));
+    }
+
+    /**
+     * Get the cache validators of an activity (including archived) without loading it
+     * Published activities are answered from the catalog snapshot
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ActivityStamp getActivityStamp(Long activityId) {
+        if (publishedCatalog.isReady()) {
+            ActivityResponseDTO published = publishedCatalog.snapshot().get(activityId);
+            if (published != null) {
+                return ActivityStamp.of(published);
+            }
+        }
+        return activityRepository.findStampById(activityId)
+                .or(() -> archivedActivityRepository.findStampById(activityId))
+                .orElseThrow(() -> new ActivityNotFoundException("找不到活動 ID: " + activityId));
+    }
+
+    /**
+     * Current published catalog snapshot (for catalog-wide validators), empty until it is built
      */
-    public List<Activity> getAllPublishedActivities() {
-        return activityRepository.findAllPublished();
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<CatalogSnapshot> getPublishedCatalogSnapshot() {
+        return publishedCatalog.isReady() ? Optional.of(publishedCatalog.snapshot()) : Optional.empty();
+    }
+
+    /**
+     * Get one keyset page of the published catalog
+     * Served from the in-memory published snapshot; until it has been built, keyword,
+     * category, date range and cost range are applied together in a single query
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CursorPage<ActivityResponseDTO> getPublishedCatalogPage(ActivityCatalogFilter filter, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        CatalogCursor after = CatalogCursor.decode(cursor);
+
+        // Keyword matching is resolved by the search index into candidate ids, most relevant first
+        List<Long> keywordIds = null;
+        if (filter.hasKeyword()) {
+            keywordIds = searchIndex.search(filter.getKeyword());
+            if (keywordIds.isEmpty()) {
+                return new CursorPage<>(List.of(), null, false);
+            }
+        }
+
+        if (publishedCatalog.isReady()) {
+            Set<Long> allowedIds = keywordIds != null ? Set.copyOf(keywordIds) : null;
+            return publishedCatalog.snapshot().page(filter, allowedIds, after, pageSize);
+        }
+
+        if (keywordIds != null && keywordIds.size() > MAX_KEYWORD_HITS) {
+            log.debug("Catalog query limited to the {} most relevant of {} keyword hits",
+                    MAX_KEYWORD_HITS, keywordIds.size());
+            keywordIds = keywordIds.subList(0, MAX_KEYWORD_HITS);
+        }
+        Specification<Activity> spec = Specification
+                .where(ActivitySpecifications.hasStatus(ActivityStatus.PUBLISHED))
+                .and(ActivitySpecifications.idIn(keywordIds))
+                .and(ActivitySpecifications.categoryEquals(filter.getCategoryOrNull()))
+                .and(ActivitySpecifications.startsAtOrAfter(filter.getStartFrom()))
+                .and(ActivitySpecifications.startsBefore(filter.getStartBefore()))
+                .and(ActivitySpecifications.costAtLeast(filter.getMinCost()))
+                .and(ActivitySpecifications.costAtMost(filter.getMaxCost()))
+                .and(after != null ? ActivitySpecifications.before(after.getStartTime(), after.getActivityId()) : null);
+
+        // Fetch one extra row to know whether another page exists
+        List<Activity> rows = activityRepository.findBy(spec, query -> query
+                .sortBy(CATALOG_ORDER)
+                .limit(pageSize + 1)
+                .project("creator")
+                .all());
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Activity> items = hasNext ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            Activity last = items.get(items.size() - 1);
+            nextCursor = new CatalogCursor(last.getStartTime(), last.getActivityId()).encode();
+        }
+        return new CursorPage<>(items, nextCursor, hasNext).map(ActivityResponseDTO::fromEntity);
     }
 
     /**
@@ -227,6 +393,26 @@ public class ActivityService {
         return activityRepository.findAllPendingReview();
     }
 
+    /**
+     * Page of the audit queue (PENDING_REVIEW) with filters, sort and paging done in SQL
+     * Sorted by submission time, newest first unless the filter asks for oldest first
+     */
+    @Transactional(readOnly = true)
+    public Page<Activity> getAuditQueuePage(AuditQueueFilter filter, int page, int size) {
+        Sort.Direction direction = filter.isOldestFirst() ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Pageable pageable = PageRequest.of(
+                Math.max(page, 0),
+                Math.max(1, Math.min(size, MAX_PAGE_SIZE)),
+                Sort.by(direction, "createdAt").and(Sort.by(direction, "activityId")));
+
+        Specification<Activity> spec = Specification
+                .where(ActivitySpecifications.hasStatus(ActivityStatus.PENDING_REVIEW))
+                .and(ActivitySpecifications.categoryEqualsIgnoreCase(filter.getCategory()))
+                .and(ActivitySpecifications.titleOrCreatorNameContains(filter.getKeyword()));
+
+        return activityRepository.findAll(spec, pageable);
+    }
+
     /**
      * Get activities created by a manager
      */
@@ -242,34 +428,144 @@ public class ActivityService {
     }
 
     /**
-     * Search published activities by keyword
+     * Search published activities by keyword, most relevant first
+     * Matching is done by the in-memory search index; hits are resolved from the published snapshot
      */
-    public List<Activity> searchPublishedActivities(String keyword) {
-        return activityRepository.searchPublishedActivities(keyword);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ActivityResponseDTO> searchPublishedActivities(String keyword) {
+        List<Long> rankedIds = searchIndex.search(keyword);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        if (publishedCatalog.isReady()) {
+            CatalogSnapshot snapshot = publishedCatalog.snapshot();
+            return rankedIds.stream()
+                    .map(snapshot::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+        }
+
+        Map<Long, Activity> byId = activityRepository.findAllById(rankedIds).stream()
+                .filter(a -> a.getStatus() == ActivityStatus.PUBLISHED)
+                .collect(Collectors.toMap(Activity::getActivityId, Function.identity()));
+        return rankedIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(ActivityResponseDTO::fromEntity)
+                .toList();
     }
 
     /**
-     * Filter published activities by category
+     * Filter published activities by category, in catalog order
      */
-    public List<Activity> getPublishedActivitiesByCategory(String category) {
-        return activityRepository.findByCategoryAndStatus(category, ActivityStatus.PUBLISHED);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ActivityResponseDTO> getPublishedActivitiesByCategory(String category) {
+        if (publishedCatalog.isReady()) {
+            return publishedCatalog.snapshot().byCategory(category);
+        }
+        return activityRepository.findByCategoryAndStatus(category, ActivityStatus.PUBLISHED).stream()
+                .map(ActivityResponseDTO::fromEntity)
+                .toList();
     }
 
     /**
-     * Mark ended activities (called by scheduled task)
+     * Mark ended activities (reconciliation sweep behind ActivityEndTimer)
+     * Transitions PUBLISHED -> ENDED with chunked set-based UPDATEs, each chunk in its own
+     * short transaction, and publishes one batch event per chunk for listeners
      */
-    public void markEndedActivities() {
-        List<Activity> endedActivities = activityRepository.findPublishedActivitiesPastEndTime(
-                java.time.LocalDateTime.now());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkTransitionResult markEndedActivities() {
+        LocalDateTime now = transitionTime();
+        BulkTransitionResult result = new BulkTransitionResult();
+
+        while (true) {
+            EndedChunk chunk = transactionTemplate.execute(status -> endActivitiesChunk(now));
+            if (chunk == null || chunk.candidates() == 0) {
+                break;
+            }
+            result.addChunk(chunk.endedIds().size());
+            log.info("Ended chunk #{} ({} of {} candidates): {}", result.getChunkCounts().size(),
+                    chunk.endedIds().size(), chunk.candidates(), chunk.endedIds());
+            if (chunk.candidates() < endBatchSize) {
+                break;
+            }
+        }
 
-        for (Activity activity : endedActivities) {
-            activity.markAsEnded();
-            activityRepository.save(activity);
-            log.info("Activity {} marked as ENDED", activity.getActivityId());
+        if (result.getTotal() > 0) {
+            log.info("Marked {} activities as ENDED in {} chunk(s)", result.getTotal(), result.getChunkCounts().size());
+        }
+        return result;
+    }
+
+    /**
+     * End the given activities if they are still published and past their end time
+     * Called by ActivityEndTimer when their end time arrives; returns the ids actually ended
+     */
+    @Transactional
+    public List<Long> endActivities(Collection<Long> activityIds) {
+        LocalDateTime now = transitionTime();
+        List<Long> candidates = activityRepository.findPublishedIdsPastEndTime(activityIds, now);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        return markEnded(candidates, now);
+    }
+
+    /**
+     * Transition one chunk of overdue published activities
+     */
+    private EndedChunk endActivitiesChunk(LocalDateTime now) {
+        List<Long> candidates = activityRepository.findPublishedIdsPastEndTime(now, PageRequest.of(0, endBatchSize));
+        if (candidates.isEmpty()) {
+            return new EndedChunk(0, List.of());
+        }
+        return new EndedChunk(candidates.size(), markEnded(candidates, now));
+    }
+
+    /**
+     * Run the conditional PUBLISHED -> ENDED UPDATE and announce only the rows it changed
+     * Candidates edited concurrently (e.g. end time extended) are skipped by the UPDATE and
+     * must stay in the catalog, search index and end timer
+     */
+    private List<Long> markEnded(List<Long> candidates, LocalDateTime now) {
+        int updated = activityRepository.markEndedByIds(candidates, now);
+        if (updated == 0) {
+            log.info("None of {} activities ended; all changed concurrently", candidates.size());
+            return List.of();
+        }
+        List<Long> endedIds = activityRepository.findEndedIdsAt(candidates, now);
+        if (updated != candidates.size()) {
+            log.warn("Expected to end {} activities but updated {}; some changed concurrently",
+                    candidates.size(), updated);
         }
+        eventPublisher.publishEvent(new ActivityBatchChangedEvent(endedIds, ChangeType.ENDED));
+        return endedIds;
+    }
 
-        if (!endedActivities.isEmpty()) {
-            log.info("Marked {} activities as ENDED", endedActivities.size());
+    /**
+     * Timestamp for a set-based transition, at the column's microsecond precision so
+     * findEndedIdsAt can match the rows the UPDATE stamped with it
+     */
+    private static LocalDateTime transitionTime() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    /**
+     * Candidates selected for one chunk and the ids the UPDATE actually ended
+     */
+    private record EndedChunk(int candidates, List<Long> endedIds) {
+    }
+
+    /**
+     * Reject a conditional write when the activity has moved past the version the caller saw
+     * The version check in Hibernate's UPDATE still catches changes committed after this point
+     */
+    private void checkVersion(Activity activity, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(activity.getVersion())) {
+            log.info("Activity {} version mismatch: expected {}, current {}",
+                    activity.getActivityId(), expectedVersion, activity.getVersion());
+            throw new ActivityVersionConflictException("活動已被其他人修改，請重新載入後再試");
         }
     }
 
@@ -0,0 +1,82 @@
+package com.dive.club.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reports per-region statistics of the Hibernate second-level cache
+ * Hit/miss/put counts come from Hibernate, eviction counts from the JCache statistics MXBeans
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public Map<String, Map<String, Object>> getRegionStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Long> evictions = readEvictionCounts();
+
+        Map<String, Map<String, Object>> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("hits", region.getHitCount());
+            stats.put("misses", region.getMissCount());
+            stats.put("puts", region.getPutCount());
+            stats.put("evictions", evictions.get(regionName));
+            regions.put(regionName, stats);
+        }
+        return regions;
+    }
+
+    /**
+     * Read CacheEvictions for every JCache cache that has statistics enabled
+     * Caches whose MBean cannot be read are left out, so their regions report null rather than 0
+     */
+    private Map<String, Long> readEvictionCounts() {
+        Map<String, Long> evictions = new HashMap<>();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Set<ObjectName> names;
+        try {
+            names = server.queryNames(new ObjectName("javax.cache:type=CacheStatistics,*"), null);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalStateException(e);
+        }
+        for (ObjectName name : names) {
+            try {
+                evictions.put(cacheName(name), (Long) server.getAttribute(name, "CacheEvictions"));
+            } catch (JMException | RuntimeException e) {
+                log.warn("Unable to read JCache eviction statistics from {}: {}", name, e.toString());
+            }
+        }
+        return evictions;
+    }
+
+    /**
+     * Cache key property of a JCache MBean; providers quote it only when it holds special characters
+     */
+    private static String cacheName(ObjectName name) {
+        String value = name.getKeyProperty("Cache");
+        return value != null && value.startsWith("\"") ? ObjectName.unquote(value) : value;
+    }
+}
@@ -0,0 +1,119 @@
+package com.dive.club.service;
+
+import com.dive.club.catalog.CatalogSnapshot;
+import com.dive.club.catalog.PublishedCatalog;
+import com.dive.club.dto.ActivityResponseDTO;
+import com.dive.club.dto.DashboardStatsDTO;
+import com.dive.club.enums.ActivityStatus;
+import com.dive.club.event.ActivityBatchChangedEvent;
+import com.dive.club.event.ActivityChangedEvent;
+import com.dive.club.repository.ActivityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Homepage dashboard statistics
+ * The published count and recent list are read from the published catalog snapshot on
+ * every call. The other counts come from one GROUP BY query, cached for a short TTL and
+ * dropped on activity changes
+ */
+@Service
+@Slf4j
+public class DashboardService {
+
+    private static final int RECENT_LIMIT = 3;
+
+    private final ActivityRepository activityRepository;
+    private final PublishedCatalog publishedCatalog;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long ttlMillis;
+
+    private volatile CachedCounts cached;
+
+    public DashboardService(ActivityRepository activityRepository,
+                            PublishedCatalog publishedCatalog,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.dashboard.cache-ttl:30s}") Duration ttl) {
+        this.activityRepository = activityRepository;
+        this.publishedCatalog = publishedCatalog;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    /**
+     * Get dashboard statistics
+     */
+    public DashboardStatsDTO getStats() {
+        Map<ActivityStatus, Long> counts = new EnumMap<>(countsByStatus());
+        List<ActivityResponseDTO> recent;
+        if (publishedCatalog.isReady()) {
+            CatalogSnapshot snapshot = publishedCatalog.snapshot();
+            counts.put(ActivityStatus.PUBLISHED, (long) snapshot.size());
+            recent = snapshot.recentlyCreated(RECENT_LIMIT);
+        } else {
+            recent = readOnlyTransaction.execute(status -> activityRepository
+                    .findRecentByStatus(ActivityStatus.PUBLISHED, PageRequest.of(0, RECENT_LIMIT))
+                    .stream()
+                    .map(ActivityResponseDTO::fromEntity)
+                    .toList());
+        }
+        return new DashboardStatsDTO(counts, recent, LocalDateTime.now());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivityChanged(ActivityChangedEvent event) {
+        cached = null;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onActivitiesChanged(ActivityBatchChangedEvent event) {
+        cached = null;
+    }
+
+    /**
+     * Counts per status, reloaded when the cached copy has expired
+     */
+    private Map<ActivityStatus, Long> countsByStatus() {
+        CachedCounts current = cached;
+        if (current != null && !current.isExpired()) {
+            return current.counts;
+        }
+        synchronized (this) {
+            current = cached;
+            if (current != null && !current.isExpired()) {
+                return current.counts;
+            }
+            Map<ActivityStatus, Long> counts = readOnlyTransaction.execute(status -> loadCounts());
+            cached = new CachedCounts(counts, System.currentTimeMillis() + ttlMillis);
+            log.debug("Dashboard counts reloaded: {}", counts);
+            return counts;
+        }
+    }
+
+    private Map<ActivityStatus, Long> loadCounts() {
+        Map<ActivityStatus, Long> counts = new EnumMap<>(ActivityStatus.class);
+        for (Object[] row : activityRepository.countGroupedByStatus()) {
+            counts.put((ActivityStatus) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private record CachedCounts(Map<ActivityStatus, Long> counts, long expiresAt) {
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.dive.club.service;
+
+import com.dive.club.entity.OutboxEmail;
+import com.dive.club.enums.OutboxStatus;
+import com.dive.club.event.OutboxEmailQueuedEvent;
+import com.dive.club.repository.OutboxEmailRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Email Outbox Dispatcher
+ * Delivers queued notifications on a bounded pool of SMTP workers, each sending a batch of
+ * messages (plain text with optional HTML alternative) over one connection. Runs right after a
+ * transaction that queued mail commits, and polls as a safety net. Each row is claimed with a
+ * conditional update and a lease, so concurrent dispatchers never send it twice and rows of a
+ * crashed node are retried once the lease expires. Failed attempts are retried with exponential
+ * backoff (with jitter); after max-attempts the row becomes DEAD and stays for inspection
+ */
+@Service
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final String sender;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final int retentionDays;
+    private final int batchSize;
+
+    private final ThreadPoolExecutor workers;
+    private final Semaphore slots; // one permit per worker, held from claim until the batch is recorded
+    private final ExecutorService coordinator;
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private final AtomicBoolean wakeUpPending = new AtomicBoolean();
+    private final AtomicBoolean backlog = new AtomicBoolean();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+
+    public EmailOutboxDispatcher(OutboxEmailRepository outboxEmailRepository,
+                                 JavaMailSender mailSender,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${app.admin.email:admin@diveclub.com}") String sender,
+                                 @Value("${app.mail.outbox.workers:4}") int workerCount,
+                                 @Value("${app.mail.outbox.batch-size:20}") int batchSize,
+                                 @Value("${app.mail.outbox.max-attempts:8}") int maxAttempts,
+                                 @Value("${app.mail.outbox.initial-backoff:30s}") Duration initialBackoff,
+                                 @Value("${app.mail.outbox.max-backoff:1h}") Duration maxBackoff,
+                                 @Value("${app.mail.outbox.lease:5m}") Duration lease,
+                                 @Value("${app.mail.outbox.retention-days:30}") int retentionDays) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.sender = sender;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+
+        this.slots = new Semaphore(workerCount);
+        AtomicInteger threadIndex = new AtomicInteger();
+        // claims never exceed the free slots, so the queue only has to hold one batch
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workerCount), runnable -> {
+                    Thread thread = new Thread(runnable, "email-outbox-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.coordinator = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "email-outbox-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Dispatch as soon as the transaction that queued a message commits
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onEmailQueued(OutboxEmailQueuedEvent event) {
+        wakeUp();
+    }
+
+    /**
+     * Safety net: picks up retries whose backoff elapsed, expired leases and missed wake-ups
+     */
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval:PT10S}")
+    public void poll() {
+        dispatchDue();
+    }
+
+    /**
+     * Claim up to batch-size due messages per free worker and hand them over in batches
+     * @return number of messages claimed
+     */
+    public int dispatchDue() {
+        if (!dispatchLock.tryLock()) {
+            return 0;
+        }
+        try {
+            int free = slots.availablePermits();
+            if (free <= 0) {
+                backlog.set(true);
+                return 0;
+            }
+            int limit = free * batchSize;
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEmail> claimed = transactionTemplate.execute(status -> {
+                List<OutboxEmail> emails = new ArrayList<>();
+                for (Long id : outboxEmailRepository.findDueIds(now, Limit.of(limit))) {
+                    if (outboxEmailRepository.claim(id, now, now.plus(lease)) == 1) {
+                        outboxEmailRepository.findById(id).ifPresent(emails::add);
+                    }
+                }
+                return emails;
+            });
+            backlog.set(claimed.size() == limit);
+            // as few batches as batch-size allows: each batch reuses one SMTP connection
+            int batches = (claimed.size() + batchSize - 1) / batchSize;
+            int perBatch = batches == 0 ? 0 : (claimed.size() + batches - 1) / batches;
+            for (int from = 0; from < claimed.size(); from += perBatch) {
+                List<OutboxEmail> batch = claimed.subList(from, Math.min(from + perBatch, claimed.size()));
+                slots.acquireUninterruptibly(); // only this (locked) method acquires, so never blocks
+                workers.execute(() -> deliver(batch));
+            }
+            return claimed.size();
+        } catch (RuntimeException e) {
+            log.error("Email outbox dispatch failed", e);
+            return 0;
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    /**
+     * Put a dead letter back in the queue
+     * @return whether the message was DEAD
+     */
+    public boolean retryDead(Long id) {
+        Integer requeued = transactionTemplate.execute(status -> outboxEmailRepository.requeueDead(id, LocalDateTime.now()));
+        if (requeued == null || requeued == 0) {
+            return false;
+        }
+        log.info("Dead letter {} requeued", id);
+        wakeUp();
+        return true;
+    }
+
+    /**
+     * Row counts per status, the latest dead letters and dispatcher counters
+     */
+    public Map<String, Object> getStatistics() {
+        Map<OutboxStatus, Long> counts = new EnumMap<>(OutboxStatus.class);
+        for (OutboxStatus status : OutboxStatus.values()) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : outboxEmailRepository.countByStatus()) {
+            counts.put((OutboxStatus) row[0], (Long) row[1]);
+        }
+        List<Map<String, Object>> dead = outboxEmailRepository
+                .findByStatusOrderByNextAttemptAtDesc(OutboxStatus.DEAD, Limit.of(20)).stream()
+                .map(email -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("id", email.getId());
+                    entry.put("type", email.getType());
+                    entry.put("recipient", email.getRecipient());
+                    entry.put("subject", email.getSubject());
+                    entry.put("attempts", email.getAttempts());
+                    entry.put("lastError", email.getLastError());
+                    entry.put("createdAt", email.getCreatedAt());
+                    return entry;
+                })
+                .toList();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("counts", counts);
+        stats.put("deadLetters", dead);
+        stats.put("sent", sent.get());
+        stats.put("failedAttempts", failedAttempts.get());
+        stats.put("deadLettered", deadLettered.get());
+        stats.put("activeWorkers", workers.getActiveCount());
+        return stats;
+    }
+
+    /**
+     * Delete delivered messages older than app.mail.outbox.retention-days
+     */
+    @Scheduled(cron = "${app.mail.outbox.purge-cron:0 45 3 * * *}")
+    public void purgeSent() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        Integer deleted = transactionTemplate.execute(status -> outboxEmailRepository.deleteSentBefore(cutoff));
+        if (deleted != null && deleted > 0) {
+            log.info("Purged {} delivered outbox emails", deleted);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        coordinator.shutdownNow();
+        workers.shutdown(); // let in-flight SMTP sends finish; unsent claims are retried after their lease
+        workers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void wakeUp() {
+        if (wakeUpPending.compareAndSet(false, true)) {
+            coordinator.execute(() -> {
+                wakeUpPending.set(false);
+                dispatchDue();
+            });
+        }
+    }
+
+    /**
+     * Send a batch over one SMTP connection and record the outcome of every message
+     */
+    private void deliver(List<OutboxEmail> batch) {
+        try {
+            Map<MimeMessage, OutboxEmail> messages = new LinkedHashMap<>();
+            for (OutboxEmail email : batch) {
+                try {
+                    messages.put(toMimeMessage(email), email);
+                } catch (MessagingException | RuntimeException e) {
+                    failed(email, e);
+                }
+            }
+            if (messages.isEmpty()) {
+                return;
+            }
+
+            Map<Object, Exception> failures = Map.of();
+            try {
+                mailSender.send(messages.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages();
+                if (failures.isEmpty()) {
+                    messages.values().forEach(email -> failed(email, e));
+                    return;
+                }
+            } catch (RuntimeException e) { // e.g. authentication: nothing was sent
+                messages.values().forEach(email -> failed(email, e));
+                return;
+            }
+
+            List<OutboxEmail> delivered = new ArrayList<>();
+            for (Map.Entry<MimeMessage, OutboxEmail> entry : messages.entrySet()) {
+                Exception failure = failures.get(entry.getKey());
+                if (failure != null) {
+                    failed(entry.getValue(), failure);
+                } else {
+                    delivered.add(entry.getValue());
+                }
+            }
+            markSent(delivered);
+        } finally {
+            slots.release();
+            if (backlog.get()) {
+                wakeUp();
+            }
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutboxEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        boolean html = email.getHtmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, html, StandardCharsets.UTF_8.name());
+        helper.setFrom(sender);
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        if (html) {
+            helper.setText(email.getBody(), email.getHtmlBody()); // multipart/alternative
+        } else {
+            helper.setText(email.getBody());
+        }
+        return message;
+    }
+
+    private void markSent(List<OutboxEmail> delivered) {
+        if (delivered.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    delivered.forEach(email -> outboxEmailRepository.markSent(email.getId(), now)));
+        } catch (RuntimeException e) {
+            // the mail is out; the row is sent again after its lease, which is the lesser evil than losing it
+            log.error("Cannot mark {} delivered email(s) as sent", delivered.size(), e);
+            return;
+        }
+        sent.addAndGet(delivered.size());
+        for (OutboxEmail email : delivered) {
+            log.info("{} email {} sent to {} (attempt {})",
+                    email.getType(), email.getId(), email.getRecipient(), email.getAttempts());
+        }
+    }
+
+    private void failed(OutboxEmail email, Exception e) {
+        failedAttempts.incrementAndGet();
+        String error = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        boolean dead = email.getAttempts() >= maxAttempts;
+        LocalDateTime nextAttemptAt = dead ? LocalDateTime.now() : LocalDateTime.now().plus(backoff(email.getAttempts()));
+        String lastError = error;
+        try {
+            transactionTemplate.executeWithoutResult(status -> outboxEmailRepository.markFailed(email.getId(),
+                    dead ? OutboxStatus.DEAD : OutboxStatus.PENDING, nextAttemptAt, lastError));
+        } catch (RuntimeException updateFailure) {
+            log.error("Cannot record failed attempt of email {}; it is retried after its lease", email.getId(), updateFailure);
+            return;
+        }
+        if (dead) {
+            deadLettered.incrementAndGet();
+            log.error("{} email {} to {} moved to dead letters after {} attempts: {}",
+                    email.getType(), email.getId(), email.getRecipient(), email.getAttempts(), error);
+        } else {
+            log.warn("{} email {} to {} failed (attempt {}/{}), retrying at {}: {}",
+                    email.getType(), email.getId(), email.getRecipient(), email.getAttempts(), maxAttempts,
+                    nextAttemptAt, error);
+        }
+    }
+
+    /**
+     * initial-backoff * 2^(attempt-1), capped at max-backoff, +/- 20% so retries of a burst spread out
+     */
+    private Duration backoff(int attempt) {
+        long base = initialBackoff.toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(base, maxBackoff.toMillis());
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (capped * jitter));
+    }
+}
@@ -1,22 +1,50 @@
 package com.dive.club.service;
 
 import com.dive.club.entity.Activity;
+import com.dive.club.entity.OutboxEmail;
+import com.dive.club.entity.SubmissionDigestEntry;
+import com.dive.club.enums.ActivityStatus;
+import com.dive.club.event.OutboxEmailQueuedEvent;
+import com.dive.club.repository.ActivityRepository;
+import com.dive.club.repository.OutboxEmailRepository;
+import com.dive.club.repository.SubmissionDigestEntryRepository;
+import com.dive.club.repository.UserRepository;
+import com.dive.club.service.EmailTemplates.RenderedEmail;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
- * Email Service for sending notifications
+ * Email Service for notifications
+ * Messages are rendered from EmailTemplates and written to the email outbox in the caller's
+ * transaction, so a notification exists exactly when the change it reports commits;
+ * EmailOutboxDispatcher delivers them. No SMTP work happens on the calling thread.
+ * Submissions are announced to every enabled SuperManager, either one email per submission or,
+ * with app.mail.admin-digest.enabled, collected into a periodic digest
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(propagation = Propagation.MANDATORY)
 public class EmailService {
 
-    private final JavaMailSender mailSender;
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final SubmissionDigestEntryRepository submissionDigestEntryRepository;
+    private final ActivityRepository activityRepository;
+    private final UserRepository userRepository;
+    private final EmailTemplates emailTemplates;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.name:Diving Club Management System}")
     private String appName;
@@ -24,141 +52,117 @@ public class EmailService {
     @Value("${app.admin.email:admin@diveclub.com}")
     private String adminEmail;
 
+    @Value("${app.mail.admin-digest.enabled:true}")
+    private boolean adminDigestEnabled;
+
     /**
-     * Send email notification when activity is approved
+     * Queue email notification when activity is approved
      */
     public void sendApprovalNotification(Activity activity) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(adminEmail);
-            message.setTo(activity.getCreator().getEmail());
-            message.setSubject(String.format("[%s] 活動審核通過 - %s", appName, activity.getTitle()));
-
-            String content = String.format(
-                    "親愛的 %s，\n\n" +
-                            "您的活動已通過審核！\n\n" +
-                            "活動名稱：%s\n" +
-                            "活動時間：%s 至 %s\n" +
-                            "活動地點：%s\n\n" +
-                            "活動已發布，會員現在可以瀏覽並報名參加。\n\n" +
-                            "祝活動順利！\n\n" +
-                            "%s 管理團隊",
-                    activity.getCreator().getName(),
-                    activity.getTitle(),
-                    activity.getStartTime(),
-                    activity.getEndTime(),
-                    activity.getLocation(),
-                    appName);
-
-            message.setText(content);
-            mailSender.send(message);
-
-            log.info("Approval notification sent to {} for activity {}",
-                    activity.getCreator().getEmail(), activity.getActivityId());
-        } catch (Exception e) {
-            log.error("Failed to send approval notification", e);
-            // Don't throw exception - email failure shouldn't break the approval process
-        }
+        RenderedEmail content = emailTemplates.render(EmailTemplates.APPROVAL,
+                Map.of("appName", appName, "activity", activity));
+        queue(OutboxEmail.Type.APPROVAL, activity.getCreator().getEmail(),
+                String.format("[%s] 活動審核通過 - %s", appName, activity.getTitle()), content, activity.getActivityId());
+
+        log.info("Approval notification queued to {} for activity {}",
+                activity.getCreator().getEmail(), activity.getActivityId());
     }
 
     /**
-     * Send email notification when activity is rejected
+     * Queue email notification when activity is rejected
      */
     public void sendRejectionNotification(Activity activity, String reason) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(adminEmail);
-            message.setTo(activity.getCreator().getEmail());
-            message.setSubject(String.format("[%s] 活動需要修正 - %s", appName, activity.getTitle()));
-
-            String content = String.format(
-                    "親愛的 %s，\n\n" +
-                            "您的活動需要修正後重新提交。\n\n" +
-                            "活動名稱：%s\n" +
-                            "退回原因：%s\n\n" +
-                            "請根據上述原因修正活動內容後，重新提交審核。\n\n" +
-                            "如有任何問題，請聯繫管理員。\n\n" +
-                            "%s 管理團隊",
-                    activity.getCreator().getName(),
-                    activity.getTitle(),
-                    reason,
-                    appName);
-
-            message.setText(content);
-            mailSender.send(message);
-
-            log.info("Rejection notification sent to {} for activity {}",
-                    activity.getCreator().getEmail(), activity.getActivityId());
-        } catch (Exception e) {
-            log.error("Failed to send rejection notification", e);
-        }
+        RenderedEmail content = emailTemplates.render(EmailTemplates.REJECTION,
+                Map.of("appName", appName, "activity", activity, "reason", reason));
+        queue(OutboxEmail.Type.REJECTION, activity.getCreator().getEmail(),
+                String.format("[%s] 活動需要修正 - %s", appName, activity.getTitle()), content, activity.getActivityId());
+
+        log.info("Rejection notification queued to {} for activity {}",
+                activity.getCreator().getEmail(), activity.getActivityId());
     }
 
     /**
-     * Send email notification when activity is submitted for review
+     * Queue email notification when activity is submitted for review
      */
     public void sendSubmissionNotification(Activity activity) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(adminEmail);
-            message.setTo(activity.getCreator().getEmail());
-            message.setSubject(String.format("[%s] 活動已提交審核 - %s", appName, activity.getTitle()));
-
-            String content = String.format(
-                    "親愛的 %s，\n\n" +
-                            "您的活動已成功提交審核！\n\n" +
-                            "活動名稱：%s\n" +
-                            "提交時間：%s\n\n" +
-                            "管理員將盡快審核您的活動，審核結果將透過郵件通知您。\n\n" +
-                            "%s 管理團隊",
-                    activity.getCreator().getName(),
-                    activity.getTitle(),
-                    activity.getCreatedAt(),
-                    appName);
-
-            message.setText(content);
-            mailSender.send(message);
-
-            log.info("Submission notification sent to {} for activity {}",
-                    activity.getCreator().getEmail(), activity.getActivityId());
-        } catch (Exception e) {
-            log.error("Failed to send submission notification", e);
-        }
+        RenderedEmail content = emailTemplates.render(EmailTemplates.SUBMISSION,
+                Map.of("appName", appName, "activity", activity, "submittedAt", LocalDateTime.now()));
+        queue(OutboxEmail.Type.SUBMISSION, activity.getCreator().getEmail(),
+                String.format("[%s] 活動已提交審核 - %s", appName, activity.getTitle()), content, activity.getActivityId());
+
+        log.info("Submission notification queued to {} for activity {}",
+                activity.getCreator().getEmail(), activity.getActivityId());
     }
 
     /**
-     * Notify admin about new activity pending review
+     * Tell SuperManagers about a new activity pending review
+     * In digest mode the submission is only recorded for the next digest
      */
     public void notifyAdminNewSubmission(Activity activity) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setFrom(adminEmail);
-            message.setTo(adminEmail);
-            message.setSubject(String.format("[%s] 新活動待審核 - %s", appName, activity.getTitle()));
-
-            String content = String.format(
-                    "管理員您好，\n\n" +
-                            "有新的活動待審核：\n\n" +
-                            "活動名稱：%s\n" +
-                            "建立者：%s (%s)\n" +
-                            "活動時間：%s 至 %s\n" +
-                            "活動地點：%s\n\n" +
-                            "請登入系統進行審核。\n\n" +
-                            "%s",
-                    activity.getTitle(),
-                    activity.getCreator().getName(),
-                    activity.getCreator().getEmail(),
-                    activity.getStartTime(),
-                    activity.getEndTime(),
-                    activity.getLocation(),
-                    appName);
-
-            message.setText(content);
-            mailSender.send(message);
-
-            log.info("Admin notification sent for new activity {}", activity.getActivityId());
-        } catch (Exception e) {
-            log.error("Failed to send admin notification", e);
+        if (adminDigestEnabled) {
+            submissionDigestEntryRepository.save(new SubmissionDigestEntry(activity.getActivityId(), LocalDateTime.now()));
+            log.debug("Activity {} recorded for the next admin digest", activity.getActivityId());
+            return;
+        }
+
+        RenderedEmail content = emailTemplates.render(EmailTemplates.ADMIN_SUBMISSION,
+                Map.of("appName", appName, "activity", activity));
+        String subject = String.format("[%s] 新活動待審核 - %s", appName, activity.getTitle());
+        List<String> recipients = adminRecipients();
+        recipients.forEach(recipient ->
+                queue(OutboxEmail.Type.ADMIN_SUBMISSION, recipient, subject, content, activity.getActivityId()));
+
+        log.info("Admin notification queued to {} recipient(s) for new activity {}",
+                recipients.size(), activity.getActivityId());
+    }
+
+    /**
+     * Queue one digest per SuperManager listing the activities submitted since the last digest
+     * that are still pending review. Digests are queued together, so the dispatcher sends them
+     * in one batch over a single SMTP connection
+     * @return number of digest emails queued
+     */
+    @Transactional
+    public int queueAdminDigest() {
+        List<SubmissionDigestEntry> entries = submissionDigestEntryRepository.findAllByOrderBySubmittedAtAsc();
+        if (entries.isEmpty()) {
+            return 0;
         }
+        submissionDigestEntryRepository.deleteAllInBatch(entries);
+
+        Set<Long> ids = entries.stream().map(SubmissionDigestEntry::getActivityId).collect(Collectors.toSet());
+        List<Activity> pending = activityRepository.findAllById(ids).stream()
+                .filter(activity -> activity.getStatus() == ActivityStatus.PENDING_REVIEW)
+                .sorted(Comparator.comparing(Activity::getStartTime))
+                .toList();
+        if (pending.isEmpty()) {
+            log.info("Admin digest skipped: all {} submission(s) were already audited", ids.size());
+            return 0;
+        }
+
+        RenderedEmail content = emailTemplates.render(EmailTemplates.ADMIN_DIGEST, Map.of(
+                "appName", appName,
+                "activities", pending,
+                "pendingTotal", activityRepository.countByStatus(ActivityStatus.PENDING_REVIEW)));
+        String subject = String.format("[%s] %d 個新活動待審核", appName, pending.size());
+        List<String> recipients = adminRecipients();
+        recipients.forEach(recipient -> queue(OutboxEmail.Type.ADMIN_DIGEST, recipient, subject, content, null));
+
+        log.info("Admin digest of {} activities queued to {} recipient(s)", pending.size(), recipients.size());
+        return recipients.size();
+    }
+
+    /**
+     * Enabled SuperManagers, or app.admin.email when there are none
+     */
+    private List<String> adminRecipients() {
+        List<String> recipients = userRepository.findEnabledSuperManagerEmails();
+        return recipients.isEmpty() ? List.of(adminEmail) : recipients;
+    }
+
+    private void queue(OutboxEmail.Type type, String recipient, String subject, RenderedEmail content, Long activityId) {
+        OutboxEmail email = outboxEmailRepository.save(
+                OutboxEmail.pending(type, recipient, subject, content.text(), content.html(), activityId));
+        eventPublisher.publishEvent(new OutboxEmailQueuedEvent(email.getId()));
     }
 }
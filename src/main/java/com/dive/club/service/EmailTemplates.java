@@ -0,0 +1,78 @@
+package com.dive.club.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Notification email templates (templates/mail/{name}.txt and {name}.html)
+ * A dedicated template engine, separate from the page templates: the plain-text variant is
+ * rendered in TEXT mode, the HTML variant in HTML mode inside layout.html. Templates are parsed
+ * once and kept in the engine's cache, so rendering only evaluates expressions. Each event is
+ * rendered once; the result is stored in the outbox and reused for every recipient and retry
+ */
+@Component
+@Slf4j
+public class EmailTemplates {
+
+    public static final String SUBMISSION = "submission";
+    public static final String APPROVAL = "approval";
+    public static final String REJECTION = "rejection";
+    public static final String ADMIN_SUBMISSION = "admin-submission";
+    public static final String ADMIN_DIGEST = "admin-digest";
+
+    private static final String PREFIX = "templates/mail/";
+    private static final List<String> NAMES = List.of(SUBMISSION, APPROVAL, REJECTION, ADMIN_SUBMISSION, ADMIN_DIGEST);
+    private static final Locale LOCALE = Locale.TRADITIONAL_CHINESE;
+
+    private final SpringTemplateEngine engine = new SpringTemplateEngine();
+
+    public EmailTemplates() {
+        engine.addTemplateResolver(resolver(TemplateMode.TEXT, "*.txt", 1));
+        engine.addTemplateResolver(resolver(TemplateMode.HTML, "*.html", 2));
+        for (String name : NAMES) {
+            for (String variant : List.of(".txt", ".html")) {
+                if (!new ClassPathResource(PREFIX + name + variant).exists()) {
+                    throw new IllegalStateException("找不到郵件範本: " + PREFIX + name + variant);
+                }
+            }
+        }
+        log.info("Email templates ready: {}", NAMES);
+    }
+
+    /**
+     * Render both variants of a template
+     */
+    public RenderedEmail render(String name, Map<String, Object> variables) {
+        Context context = new Context(LOCALE, variables);
+        return new RenderedEmail(engine.process(name + ".txt", context), engine.process(name + ".html", context));
+    }
+
+    private static ClassLoaderTemplateResolver resolver(TemplateMode mode, String pattern, int order) {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix(PREFIX);
+        resolver.setTemplateMode(mode);
+        resolver.setResolvablePatterns(Set.of(pattern));
+        resolver.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        resolver.setCacheable(true);
+        resolver.setCheckExistence(true);
+        resolver.setOrder(order);
+        return resolver;
+    }
+
+    /**
+     * Plain-text body and its HTML alternative
+     */
+    public record RenderedEmail(String text, String html) {
+    }
+}
@@ -0,0 +1,54 @@
+package com.dive.club.util;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.Duration;
+
+/**
+ * Conditional GET helpers
+ * Handlers check validators before loading or rendering anything and return null on 304
+ */
+public final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Responses may be stored (also by shared caches) but must be revalidated before every reuse
+     */
+    public static CacheControl revalidate() {
+        return CacheControl.noCache();
+    }
+
+    /**
+     * Like {@link #revalidate()}, for pages rendered per viewer: browser cache only
+     */
+    public static CacheControl revalidatePrivate() {
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    /**
+     * For content-addressed resources whose URL changes whenever the content does
+     */
+    public static CacheControl immutable() {
+        return CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+    }
+
+    /**
+     * Apply Cache-Control, ETag and Last-Modified, and answer If-None-Match / If-Modified-Since
+     * @param lastModifiedMillis epoch milliseconds, or a negative value when unknown
+     * @return true when 304 Not Modified has been set and the handler should stop
+     */
+    public static boolean notModified(ServletWebRequest request, CacheControl cacheControl,
+                                      String etag, long lastModifiedMillis) {
+        HttpServletResponse response = request.getResponse();
+        if (response != null) {
+            // set explicitly so Spring Security does not add its default no-store
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        }
+        return request.checkNotModified(etag, lastModifiedMillis);
+    }
+}
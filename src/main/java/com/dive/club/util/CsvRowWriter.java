@@ -0,0 +1,46 @@
+package com.dive.club.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 CSV writer, the counterpart of {@link CsvRowReader}
+ * Fields containing commas, quotes or line breaks are quoted with doubled quotes
+ */
+public class CsvRowWriter {
+
+    private final Writer writer;
+
+    public CsvRowWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Write one row terminated by CRLF; null fields are written as empty
+     */
+    public void writeRow(List<String> fields) throws IOException {
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(fields.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean needsQuotes = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,53 @@
+package com.dive.club.util;
+
+/**
+ * Entity tag helpers
+ * An activity's ETag is its quoted version number, e.g. "3"
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Strong ETag for an entity version
+     */
+    public static String fromVersion(Long version) {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * Weak ETag for a page rendered for one viewer (0 for guests)
+     * Weak because the same page is sent both compressed and uncompressed; markup identifies
+     * anything besides the entity that changes the rendered page (e.g. signed image URLs)
+     */
+    public static String forViewer(Long version, Long viewerId, String markup) {
+        return "W/\"" + (version == null ? 0 : version) + "-u" + (viewerId == null ? 0 : viewerId)
+                + "-" + markup + "\"";
+    }
+
+    /**
+     * Expected version from an If-Match header
+     * Returns null when the header is absent or "*" (no precondition)
+     */
+    public static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.contains(",")) {
+            throw new IllegalArgumentException("If-Match 僅支援單一版本標籤");
+        }
+        if (tag.startsWith("W/")) {
+            throw new IllegalArgumentException("If-Match 不接受弱 ETag");
+        }
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            throw new IllegalArgumentException("無效的 If-Match 標頭");
+        }
+        try {
+            return Long.parseLong(tag.substring(1, tag.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("無效的 If-Match 標頭");
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.dive.club.view;
+
+import com.dive.club.dto.ActivityResponseDTO;
+import com.dive.club.entity.Activity;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.expression.ThymeleafEvaluationContext;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Renders the user-independent parts of activity pages once and caches the HTML
+ * Entries are keyed by activity id and version (bumped on every write, including bulk
+ * ENDED), so a changed activity simply misses and old entries age out of the bounded cache.
+ * Markup rendered while an image placeholder is still being generated is keyed apart, so it
+ * is replaced once the placeholder exists.
+ * Fragments live in templates/fragments/activity_fragments.html and are rendered without
+ * request state; pages embed them with {@code th:utext="${@activityFragments.card(activity)}"}
+ */
+@Component("activityFragments")
+@Slf4j
+public class ActivityFragmentRenderer {
+
+    private static final String TEMPLATE = "fragments/activity_fragments";
+
+    private final ITemplateEngine templateEngine;
+    private final ResponsiveImages images;
+    private final ThymeleafEvaluationContext evaluationContext;
+    private final Cache<String, String> rendered;
+
+    public ActivityFragmentRenderer(ITemplateEngine templateEngine,
+                                    ResponsiveImages images,
+                                    ApplicationContext applicationContext,
+                                    @Value("${app.view.fragment-cache.max-size:2000}") long maxSize) {
+        this.templateEngine = templateEngine;
+        this.images = images;
+        // lets fragments call helper beans such as ${@images.src(...)}
+        this.evaluationContext = new ThymeleafEvaluationContext(applicationContext, null);
+        this.rendered = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Activity card of the catalog list
+     */
+    public String card(ActivityResponseDTO activity) {
+        return render("card:" + activity.getActivityId() + ":" + activity.getVersion()
+                        + imageState(activity.getImageUrl(), activity.getCategory()),
+                "card", Map.of("activity", activity));
+    }
+
+    /**
+     * Main column of the detail page (image, facts, description)
+     */
+    public String detailBody(Activity activity) {
+        return render("detail:" + activity.getActivityId() + ":" + activity.getVersion()
+                        + imageState(activity.getImageUrl(), activity.getCategory()),
+                "detailBody", Map.of("activity", activity));
+    }
+
+    /**
+     * Organiser card of the detail page
+     */
+    public String detailOrganizer(Activity activity) {
+        return render("organizer:" + activity.getActivityId() + ":" + activity.getVersion(),
+                "detailOrganizer", Map.of("activity", activity));
+    }
+
+    /**
+     * Homepage recent-activity block, keyed by the ids and versions it shows
+     */
+    public String recentActivities(List<ActivityResponseDTO> activities) {
+        String key = activities.stream()
+                .map(a -> a.getActivityId() + ":" + a.getVersion() + imageState(a.getImageUrl(), a.getCategory()))
+                .collect(Collectors.joining(",", "recent:", ""));
+        return render(key, "recentActivities", Map.of("recentActivities", activities));
+    }
+
+    public Map<String, Object> getStatistics() {
+        var stats = rendered.stats();
+        return Map.of(
+                "size", rendered.estimatedSize(),
+                "hits", stats.hitCount(),
+                "misses", stats.missCount(),
+                "evictions", stats.evictionCount());
+    }
+
+    /**
+     * Key suffix marking markup rendered without its pending image placeholder
+     */
+    private String imageState(String imageUrl, String category) {
+        return images.placeholderPending(imageUrl, category) ? ":p" : "";
+    }
+
+    private String render(String key, String fragment, Map<String, Object> variables) {
+        return rendered.get(key, k -> {
+            log.debug("Rendering fragment {}", k);
+            Context context = new Context(Locale.getDefault(), variables);
+            context.setVariable(ThymeleafEvaluationContext.THYMELEAF_EVALUATION_CONTEXT_CONTEXT_VARIABLE_NAME,
+                    evaluationContext);
+            return templateEngine.process(TEMPLATE, Set.of(fragment), context);
+        });
+    }
+}
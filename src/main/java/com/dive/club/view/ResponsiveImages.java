@@ -0,0 +1,87 @@
+package com.dive.club.view;
+
+import com.dive.club.image.ExternalImageCache;
+import com.dive.club.image.ImageDerivativeService;
+import com.dive.club.util.ImageUtil;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Template helpers for activity images: src, srcset and blur-up placeholder
+ * Activities without an image get the default image of their category. Local images are served
+ * as resized derivatives; external URLs are served through the local proxy (no srcset, no placeholder).
+ * Usage: {@code th:src="${@images.src(activity.imageUrl, activity.category, 640)}"}
+ */
+@Component("images")
+@RequiredArgsConstructor
+public class ResponsiveImages {
+
+    private final ImageDerivativeService derivatives;
+    private final ExternalImageCache externalImages;
+
+    /**
+     * Changes whenever the same activity would render different image URLs (proxy signing key),
+     * so page validators must include it
+     */
+    public String markupVersion() {
+        return externalImages.signingKeyId();
+    }
+
+    /**
+     * Image URL of an activity, falling back to the category default
+     */
+    public String resolve(String imageUrl, String category) {
+        return StringUtils.hasText(imageUrl) ? imageUrl.trim() : ImageUtil.getDefaultImageByCategory(category);
+    }
+
+    /**
+     * Derivative closest to (not below) the requested width, or the largest available one
+     */
+    public String src(String imageUrl, String category, int width) {
+        String url = resolve(imageUrl, category);
+        if (externalImages.supports(url)) {
+            return externalImages.proxyUrl(url);
+        }
+        List<Integer> widths = derivatives.widthsFor(url);
+        if (widths.isEmpty()) {
+            return url;
+        }
+        int chosen = widths.stream().filter(w -> w >= width).findFirst().orElse(widths.get(widths.size() - 1));
+        return derivatives.derivedUrl(url, chosen);
+    }
+
+    /**
+     * srcset attribute value listing every available derivative, or null (attribute omitted)
+     */
+    public String srcset(String imageUrl, String category) {
+        String url = resolve(imageUrl, category);
+        List<Integer> widths = derivatives.widthsFor(url);
+        if (widths.isEmpty()) {
+            return null;
+        }
+        return widths.stream()
+                .map(w -> derivatives.derivedUrl(url, w) + " " + w + "w")
+                .collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Whether {@link #placeholder} currently returns null only because the placeholder is being generated
+     */
+    public boolean placeholderPending(String imageUrl, String category) {
+        return derivatives.isPlaceholderPending(resolve(imageUrl, category));
+    }
+
+    /**
+     * Inline style painting the blurred placeholder behind the image until it loads, or null
+     * Never blocks: a placeholder that is not generated yet is queued and omitted
+     */
+    public String placeholder(String imageUrl, String category) {
+        return derivatives.placeholder(resolve(imageUrl, category))
+                .map(dataUri -> "background: #dfe9f3 url('" + dataUri + "') center / cover no-repeat;")
+                .orElse(null);
+    }
+}
@@ -0,0 +1,52 @@
+-- Baseline schema (matches the tables previously generated by ddl-auto)
+
+CREATE TABLE users (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    email        VARCHAR(255) NOT NULL,
+    enabled      BOOLEAN      NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    password     VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255),
+    role         VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT ck_users_role CHECK (role IN ('ROLE_GUEST', 'ROLE_MEMBER', 'ROLE_MANAGER', 'ROLE_ADMIN'))
+);
+
+CREATE TABLE managers (
+    id             BIGINT       NOT NULL,
+    join_date      DATE         NOT NULL,
+    position_title VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_managers_user FOREIGN KEY (id) REFERENCES users (id)
+);
+
+CREATE TABLE super_managers (
+    id    BIGINT       NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_super_managers_manager FOREIGN KEY (id) REFERENCES managers (id)
+);
+
+CREATE TABLE activities (
+    activity_id      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    title            VARCHAR(200)   NOT NULL,
+    description      TEXT,
+    category         VARCHAR(100)   NOT NULL,
+    start_time       TIMESTAMP(6)   NOT NULL,
+    end_time         TIMESTAMP(6)   NOT NULL,
+    location         VARCHAR(300)   NOT NULL,
+    max_participants INTEGER        NOT NULL,
+    cost             NUMERIC(10, 2) NOT NULL,
+    qualifications   TEXT,
+    image_url        VARCHAR(500),
+    status           VARCHAR(50)    NOT NULL,
+    rejection_reason TEXT,
+    creator_id       BIGINT         NOT NULL,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    updated_at       TIMESTAMP(6)   NOT NULL,
+    PRIMARY KEY (activity_id),
+    CONSTRAINT fk_activities_creator FOREIGN KEY (creator_id) REFERENCES managers (id),
+    CONSTRAINT ck_activities_status CHECK (status IN ('DRAFTING', 'PENDING_REVIEW', 'PUBLISHED',
+        'NEEDS_REVISION', 'ENDED', 'CANCELLED'))
+);
@@ -0,0 +1,6 @@
+-- Pooled sequence for Activity ids (allocationSize = 50) so inserts can be JDBC-batched
+
+CREATE SEQUENCE activities_seq START WITH 1 INCREMENT BY 50;
+
+-- Continue past any existing rows (pooled ids are allocated below the sequence value)
+ALTER SEQUENCE activities_seq RESTART WITH (SELECT COALESCE(MAX(activity_id), 0) + 51 FROM activities);
@@ -0,0 +1,2 @@
+-- Optimistic locking: Activity.version is incremented on every update and exposed as the ETag
+ALTER TABLE activities ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
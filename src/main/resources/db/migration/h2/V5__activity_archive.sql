@@ -0,0 +1,28 @@
+-- Cold storage for ENDED/CANCELLED activities moved out of the hot activities table
+-- No foreign key to managers: archived rows are history and must not block manager changes
+CREATE TABLE activities_archive (
+    activity_id      BIGINT         NOT NULL,
+    title            VARCHAR(200)   NOT NULL,
+    description      TEXT,
+    category         VARCHAR(100)   NOT NULL,
+    start_time       TIMESTAMP(6)   NOT NULL,
+    end_time         TIMESTAMP(6)   NOT NULL,
+    location         VARCHAR(300)   NOT NULL,
+    max_participants INTEGER        NOT NULL,
+    cost             NUMERIC(10, 2) NOT NULL,
+    qualifications   TEXT,
+    image_url        VARCHAR(500),
+    status           VARCHAR(50)    NOT NULL,
+    rejection_reason TEXT,
+    creator_id       BIGINT         NOT NULL,
+    created_at       TIMESTAMP(6)   NOT NULL,
+    updated_at       TIMESTAMP(6)   NOT NULL,
+    version          BIGINT         NOT NULL,
+    archived_at      TIMESTAMP(6)   NOT NULL,
+    PRIMARY KEY (activity_id)
+);
+
+CREATE INDEX idx_activities_archive_creator ON activities_archive (creator_id);
+
+-- Archival job scans: ENDED by end_time, CANCELLED / abandoned DRAFTING by updated_at
+CREATE INDEX idx_activities_status_updated ON activities (status, updated_at);
@@ -0,0 +1,21 @@
+-- Transactional outbox: notification emails are written in the same transaction as the
+-- state change and delivered by a background dispatcher (EmailOutboxDispatcher)
+CREATE TABLE email_outbox (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    message_type    VARCHAR(50)   NOT NULL,
+    recipient       VARCHAR(255)  NOT NULL,
+    subject         VARCHAR(300)  NOT NULL,
+    body            TEXT          NOT NULL,
+    activity_id     BIGINT,
+    status          VARCHAR(20)   NOT NULL,
+    attempts        INTEGER       NOT NULL,
+    next_attempt_at TIMESTAMP(6)  NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      TIMESTAMP(6)  NOT NULL,
+    sent_at         TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT ck_email_outbox_status CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'DEAD'))
+);
+
+-- Dispatcher poll: due PENDING rows and SENDING rows whose lease expired
+CREATE INDEX idx_email_outbox_status_next ON email_outbox (status, next_attempt_at);
@@ -0,0 +1,11 @@
+-- HTML alternative of outbox emails (body keeps the plain-text part)
+ALTER TABLE email_outbox ADD COLUMN html_body TEXT;
+
+-- Submissions waiting for the next SuperManager digest email (app.mail.admin-digest.*)
+-- No foreign key: an activity may be audited, deleted or archived before the digest runs
+CREATE TABLE submission_digest_entries (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    activity_id  BIGINT       NOT NULL,
+    submitted_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
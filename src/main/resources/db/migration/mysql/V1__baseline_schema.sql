@@ -0,0 +1,49 @@
+-- Baseline schema (matches the tables previously generated by ddl-auto)
+
+CREATE TABLE users (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    email        VARCHAR(255) NOT NULL,
+    enabled      BIT(1)       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    password     VARCHAR(255) NOT NULL,
+    phone_number VARCHAR(255),
+    role         ENUM ('ROLE_GUEST', 'ROLE_MEMBER', 'ROLE_MANAGER', 'ROLE_ADMIN') NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE managers (
+    id             BIGINT       NOT NULL,
+    join_date      DATE         NOT NULL,
+    position_title VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_managers_user FOREIGN KEY (id) REFERENCES users (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE super_managers (
+    id    BIGINT       NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_super_managers_manager FOREIGN KEY (id) REFERENCES managers (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+CREATE TABLE activities (
+    activity_id      BIGINT         NOT NULL AUTO_INCREMENT,
+    title            VARCHAR(200)   NOT NULL,
+    description      TEXT,
+    category         VARCHAR(100)   NOT NULL,
+    start_time       DATETIME(6)    NOT NULL,
+    end_time         DATETIME(6)    NOT NULL,
+    location         VARCHAR(300)   NOT NULL,
+    max_participants INT            NOT NULL,
+    cost             DECIMAL(10, 2) NOT NULL,
+    qualifications   TEXT,
+    image_url        VARCHAR(500),
+    status           ENUM ('DRAFTING', 'PENDING_REVIEW', 'PUBLISHED', 'NEEDS_REVISION', 'ENDED', 'CANCELLED') NOT NULL,
+    rejection_reason TEXT,
+    creator_id       BIGINT         NOT NULL,
+    created_at       DATETIME(6)    NOT NULL,
+    updated_at       DATETIME(6)    NOT NULL,
+    PRIMARY KEY (activity_id),
+    CONSTRAINT fk_activities_creator FOREIGN KEY (creator_id) REFERENCES managers (id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
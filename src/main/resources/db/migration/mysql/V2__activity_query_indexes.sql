@@ -0,0 +1,16 @@
+-- Composite indexes matched to ActivityRepository queries
+
+-- Published catalog: status = 'PUBLISHED' ORDER BY start_time DESC, activity_id DESC (keyset seek)
+CREATE INDEX idx_activities_status_start ON activities (status, start_time, activity_id);
+
+-- Catalog filtered by category: status + category, ordered by start_time
+CREATE INDEX idx_activities_status_category_start ON activities (status, category, start_time);
+
+-- Pending review queue: status = 'PENDING_REVIEW' ORDER BY created_at
+CREATE INDEX idx_activities_status_created ON activities (status, created_at);
+
+-- Scheduler scan: status = 'PUBLISHED' AND end_time < now
+CREATE INDEX idx_activities_status_end ON activities (status, end_time);
+
+-- "My activities": creator_id (+ status)
+CREATE INDEX idx_activities_creator_status ON activities (creator_id, status);
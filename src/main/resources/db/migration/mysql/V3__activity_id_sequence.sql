@@ -0,0 +1,10 @@
+-- Pooled table-backed sequence for Activity ids (allocationSize = 50) so inserts can be JDBC-batched
+-- MySQL has no sequences; Hibernate emulates activities_seq with a single-row table
+
+CREATE TABLE activities_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+
+-- Start past any existing rows (pooled ids are allocated below next_val)
+INSERT INTO activities_seq (next_val)
+SELECT COALESCE(MAX(activity_id), 0) + 51 FROM activities;
@@ -0,0 +1,27 @@
+-- Cold storage for ENDED/CANCELLED activities moved out of the hot activities table
+-- No foreign key to managers: archived rows are history and must not block manager changes
+CREATE TABLE activities_archive (
+    activity_id      BIGINT         NOT NULL,
+    title            VARCHAR(200)   NOT NULL,
+    description      TEXT,
+    category         VARCHAR(100)   NOT NULL,
+    start_time       DATETIME(6)    NOT NULL,
+    end_time         DATETIME(6)    NOT NULL,
+    location         VARCHAR(300)   NOT NULL,
+    max_participants INT            NOT NULL,
+    cost             DECIMAL(10, 2) NOT NULL,
+    qualifications   TEXT,
+    image_url        VARCHAR(500),
+    status           ENUM ('DRAFTING', 'PENDING_REVIEW', 'PUBLISHED', 'NEEDS_REVISION', 'ENDED', 'CANCELLED') NOT NULL,
+    rejection_reason TEXT,
+    creator_id       BIGINT         NOT NULL,
+    created_at       DATETIME(6)    NOT NULL,
+    updated_at       DATETIME(6)    NOT NULL,
+    version          BIGINT         NOT NULL,
+    archived_at      DATETIME(6)    NOT NULL,
+    PRIMARY KEY (activity_id),
+    INDEX idx_activities_archive_creator (creator_id)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;
+
+-- Archival job scans: ENDED by end_time, CANCELLED / abandoned DRAFTING by updated_at
+CREATE INDEX idx_activities_status_updated ON activities (status, updated_at);
@@ -0,0 +1,10 @@
+-- Bundled default images were renamed to the names ImageUtil expects (scuba-diving.jpg, training.jpg)
+-- Bump version so cached fragments and ETags of the affected activities are refreshed
+UPDATE activities SET image_url = '/images/default/scuba-diving.jpg', version = version + 1
+WHERE image_url = '/images/default/unnamed.jpg';
+UPDATE activities SET image_url = '/images/default/training.jpg', version = version + 1
+WHERE image_url = '/images/default/S__39289054.jpg';
+UPDATE activities_archive SET image_url = '/images/default/scuba-diving.jpg'
+WHERE image_url = '/images/default/unnamed.jpg';
+UPDATE activities_archive SET image_url = '/images/default/training.jpg'
+WHERE image_url = '/images/default/S__39289054.jpg';
@@ -0,0 +1,19 @@
+-- Transactional outbox: notification emails are written in the same transaction as the
+-- state change and delivered by a background dispatcher (EmailOutboxDispatcher)
+CREATE TABLE email_outbox (
+    id              BIGINT        NOT NULL AUTO_INCREMENT,
+    message_type    VARCHAR(50)   NOT NULL,
+    recipient       VARCHAR(255)  NOT NULL,
+    subject         VARCHAR(300)  NOT NULL,
+    body            TEXT          NOT NULL,
+    activity_id     BIGINT,
+    status          ENUM ('PENDING', 'SENDING', 'SENT', 'DEAD') NOT NULL,
+    attempts        INT           NOT NULL,
+    next_attempt_at DATETIME(6)   NOT NULL,
+    last_error      VARCHAR(1000),
+    created_at      DATETIME(6)   NOT NULL,
+    sent_at         DATETIME(6),
+    PRIMARY KEY (id),
+    -- Dispatcher poll: due PENDING rows and SENDING rows whose lease expired
+    INDEX idx_email_outbox_status_next (status, next_attempt_at)
+) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4;